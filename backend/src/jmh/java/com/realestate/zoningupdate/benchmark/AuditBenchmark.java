@@ -0,0 +1,146 @@
+package com.realestate.zoningupdate.benchmark;
+
+import com.realestate.zoningupdate.dto.AuditLogEntry;
+import com.realestate.zoningupdate.service.AuditJournal;
+import com.realestate.zoningupdate.service.AuditLogStore;
+import com.realestate.zoningupdate.service.AuditPipeline;
+import com.realestate.zoningupdate.service.AuditService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Audit logging and reads against a journal pre-filled with logSize entries spread
+ * over 30 daily segments. Components are wired by hand with the production defaults.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditBenchmark {
+
+    @Param({"10000", "100000"})
+    private int logSize;
+
+    private Path directory;
+    private AuditJournal journal;
+    private AuditLogStore store;
+    private AuditPipeline pipeline;
+    private AuditService auditService;
+    private final Random random = new Random(42);
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("audit-benchmark");
+
+        journal = new AuditJournal();
+        ReflectionTestUtils.setField(journal, "auditLogDir", directory.toString());
+        ReflectionTestUtils.setField(journal, "legacyLogFilePath", directory.resolve("none.jsonl").toString());
+        ReflectionTestUtils.setField(journal, "retentionDays", 30);
+        journal.init();
+
+        List<AuditLogEntry> history = SyntheticData.auditEntries(logSize, 29, 42);
+        for (int i = 0; i < history.size(); i += 1000) {
+            journal.appendAll(history.subList(i, Math.min(i + 1000, history.size())));
+        }
+
+        store = new AuditLogStore();
+        ReflectionTestUtils.setField(store, "maxEntries", 1000);
+        ReflectionTestUtils.setField(store, "retentionDays", 30);
+
+        pipeline = new AuditPipeline(journal, store, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(pipeline, "capacity", 10000);
+        ReflectionTestUtils.setField(pipeline, "batchSize", 256);
+        ReflectionTestUtils.setField(pipeline, "overflowPolicy", AuditPipeline.OverflowPolicy.BLOCK);
+        ReflectionTestUtils.setField(pipeline, "shutdownTimeoutMs", 10000L);
+        pipeline.start();
+
+        auditService = new AuditService(journal, store, pipeline);
+        ReflectionTestUtils.setField(auditService, "defaultLimit", 100);
+        ReflectionTestUtils.setField(auditService, "maxLimit", 1000);
+        auditService.init();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        pipeline.stop();
+        journal.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Request-thread cost of logging an event, with the writer applying back-pressure
+     */
+    @Benchmark
+    @Threads(4)
+    public void logAuditEvent() {
+        auditService.logAuditEvent("ZONING_UPDATE_REQUEST",
+                "Request to update 12 parcels to zoning type: Residential, sub-type: Single Family",
+                "planner7");
+    }
+
+    /**
+     * A batch of 256 entries appended and fsynced as one group commit
+     */
+    @Benchmark
+    public void appendBatch() throws IOException {
+        journal.appendAll(SyntheticData.auditEntries(256, 0, random.nextLong()));
+    }
+
+    /**
+     * The startup read that fills the in-memory store, replacing the old full-file read
+     */
+    @Benchmark
+    public List<AuditLogEntry> readRecent() {
+        return journal.readRecent(store.getMaxEntries());
+    }
+
+    /**
+     * One page of a filtered query that has to scan back through older segments
+     */
+    @Benchmark
+    public List<AuditJournal.PositionedEntry> readFilteredPage() {
+        return journal.readNewestFirst(LocalDateTime.now().minusDays(30), null, null,
+                entry -> "planner3".equals(entry.getUsername()) && "ZONING_UPDATE".equals(entry.getAction()),
+                101);
+    }
+
+    /**
+     * Loading the newest entries into the in-memory indexes
+     */
+    @Benchmark
+    public AuditLogStore loadStore() {
+        AuditLogStore fresh = new AuditLogStore();
+        ReflectionTestUtils.setField(fresh, "maxEntries", 1000);
+        ReflectionTestUtils.setField(fresh, "retentionDays", 30);
+        fresh.load(journal.readRecent(1000));
+        return fresh;
+    }
+}
@@ -0,0 +1,50 @@
+package com.realestate.zoningupdate.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realestate.zoningupdate.dto.ClusterDTO;
+import com.realestate.zoningupdate.service.ClusterTileService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of clustering query rows to cluster DTOs, including the JSONB zoning
+ * breakdown parsing, at the row counts of one cluster tile and of a full viewport
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClusterMappingBenchmark {
+
+    @Param({"50", "500", "5000"})
+    private int rowCount;
+
+    private ClusterTileService clusterTileService;
+    private List<Object[]> rows;
+
+    @Setup
+    public void setUp() {
+        // Only the row mapping is exercised, which needs neither the repository nor the cache
+        clusterTileService = new ClusterTileService(null, new ObjectMapper(), null);
+        rows = SyntheticData.clusterRows(rowCount, 42);
+    }
+
+    @Benchmark
+    public List<ClusterDTO> toClusters() {
+        return clusterTileService.toClusters(rows);
+    }
+}
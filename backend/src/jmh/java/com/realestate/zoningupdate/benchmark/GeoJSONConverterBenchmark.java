@@ -0,0 +1,87 @@
+package com.realestate.zoningupdate.benchmark;
+
+import com.realestate.zoningupdate.dto.ParcelDTO;
+import com.realestate.zoningupdate.dto.ParcelFeature;
+import com.realestate.zoningupdate.util.GeoJSONConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parcel conversion for map responses, at viewport-sized and listing-page-sized inputs
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeoJSONConverterBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int parcelCount;
+
+    private List<ParcelFeature> parcels;
+
+    @Setup
+    public void setUp() {
+        parcels = SyntheticData.parcels(parcelCount, 42);
+    }
+
+    @Benchmark
+    public Map<String, Object> convertToGeoJSON() {
+        return GeoJSONConverter.convertToGeoJSON(parcels);
+    }
+
+    @Benchmark
+    public List<ParcelDTO> convertToDTO() {
+        List<ParcelDTO> dtos = new ArrayList<>(parcels.size());
+        for (ParcelFeature parcel : parcels) {
+            dtos.add(GeoJSONConverter.convertToDTO(parcel));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public int writeGeoJSON(Blackhole blackhole) throws IOException {
+        return GeoJSONConverter.writeGeoJSON(parcels.stream(), new BlackholeOutputStream(blackhole));
+    }
+
+    /**
+     * Discards output without letting the JIT eliminate the writes
+     */
+    private static final class BlackholeOutputStream extends OutputStream {
+        private final Blackhole blackhole;
+
+        private BlackholeOutputStream(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(int b) {
+            blackhole.consume(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            blackhole.consume(b);
+            blackhole.consume(len);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.realestate.zoningupdate.benchmark;
+
+import com.realestate.zoningupdate.dto.AuditLogEntry;
+import com.realestate.zoningupdate.dto.ParcelFeature;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.postgresql.util.PGobject;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generators for realistic benchmark inputs. A fixed seed keeps runs comparable.
+ */
+final class SyntheticData {
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory(new PrecisionModel(), 4326);
+
+    private static final String[][] ZONING = {
+            {"Residential", "Single Family"}, {"Residential", "Multi Family"}, {"Residential", "Two Family"},
+            {"Commercial", "Office"}, {"Commercial", "Retail Commercial"}, {"Planned", "Planned Development"},
+            {null, null}
+    };
+
+    private static final String[] ACTIONS = {
+            "ZONING_UPDATE_REQUEST", "ZONING_UPDATE", "ZONING_UPDATE_SUCCESS", "ZONING_UPDATE_FAILURE"
+    };
+
+    // Roughly the extent of the sample county, in degrees
+    private static final double ORIGIN_X = -84.60;
+    private static final double ORIGIN_Y = 33.70;
+    private static final double PARCEL_SIZE = 0.0004;
+
+    private SyntheticData() {
+    }
+
+    /**
+     * Parcels laid out on a grid, each an irregular polygon of 6 to 24 vertices,
+     * which matches the vertex counts of typical urban parcels
+     */
+    static List<ParcelFeature> parcels(int count, long seed) {
+        Random random = new Random(seed);
+        int columns = (int) Math.ceil(Math.sqrt(count));
+        List<ParcelFeature> parcels = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double x = ORIGIN_X + (i % columns) * PARCEL_SIZE;
+            double y = ORIGIN_Y + (i / columns) * PARCEL_SIZE;
+            String[] zoning = ZONING[random.nextInt(ZONING.length)];
+            parcels.add(new ParcelFeature(
+                    i + 1,
+                    polygon(random, x, y, 6 + random.nextInt(19)),
+                    "Parcel " + (i + 1),
+                    "Owner " + random.nextInt(count),
+                    "Atlanta",
+                    String.valueOf(30300 + random.nextInt(100)),
+                    (100 + random.nextInt(9900)) + " Main St",
+                    String.format("14-%04d-%04d", random.nextInt(10000), i),
+                    zoning[0] != null ? zoning[0].substring(0, 1) + "-" + (1 + random.nextInt(5)) : null,
+                    zoning[1],
+                    zoning[0]));
+        }
+        return parcels;
+    }
+
+    /**
+     * Rows in the shape returned by ParcelRepository.findClustersInCells
+     */
+    static List<Object[]> clusterRows(int count, long seed) {
+        Random random = new Random(seed);
+        List<Object[]> rows = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                double x = ORIGIN_X + random.nextDouble() * 0.5;
+                double y = ORIGIN_Y + random.nextDouble() * 0.5;
+                int residential = random.nextInt(200);
+                int commercial = random.nextInt(50);
+                int planned = random.nextInt(20);
+                int unknown = 10 + random.nextInt(10);
+
+                PGobject breakdown = new PGobject();
+                breakdown.setType("jsonb");
+                breakdown.setValue(String.format(
+                        "{\"Residential\": %d, \"Commercial\": %d, \"Planned\": %d, \"Unknown\": %d}",
+                        residential, commercial, planned, unknown));
+
+                rows.add(new Object[]{
+                        new Double[]{x, y},
+                        (long) (residential + commercial + planned + unknown),
+                        breakdown,
+                        new Double[]{x - 0.002, y - 0.002, x + 0.002, y + 0.002}
+                });
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        return rows;
+    }
+
+    /**
+     * Audit entries spread evenly over the given number of days up to now,
+     * with details sized like real zoning update entries
+     */
+    static List<AuditLogEntry> auditEntries(int count, int days, long seed) {
+        Random random = new Random(seed);
+        LocalDateTime start = LocalDateTime.now().minusDays(days);
+        long stepMillis = Math.max(1, days * 86_400_000L / Math.max(count, 1));
+        List<AuditLogEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entries.add(auditEntry(random, start.plusNanos(i * stepMillis * 1_000_000L)));
+        }
+        return entries;
+    }
+
+    static AuditLogEntry auditEntry(Random random, LocalDateTime timestamp) {
+        String[] zoning = ZONING[random.nextInt(ZONING.length - 1)];
+        StringBuilder details = new StringBuilder("Updated parcels to [")
+                .append(zoning[0]).append(" - ").append(zoning[1]).append("]. Previous zoning:\n[Unknown - Unknown]: [");
+        int parcels = 1 + random.nextInt(20);
+        for (int i = 0; i < parcels; i++) {
+            details.append(i > 0 ? ", " : "").append(random.nextInt(500_000));
+        }
+        details.append(']');
+
+        return new AuditLogEntry(timestamp, ACTIONS[random.nextInt(ACTIONS.length)],
+                details.toString(), "planner" + random.nextInt(25));
+    }
+
+    private static Polygon polygon(Random random, double x, double y, int vertices) {
+        double cx = x + PARCEL_SIZE / 2;
+        double cy = y + PARCEL_SIZE / 2;
+        Coordinate[] ring = new Coordinate[vertices + 1];
+        for (int v = 0; v < vertices; v++) {
+            double angle = 2 * Math.PI * v / vertices;
+            double radius = PARCEL_SIZE / 2 * (0.7 + 0.3 * random.nextDouble());
+            ring[v] = new Coordinate(cx + radius * Math.cos(angle), cy + radius * Math.sin(angle));
+        }
+        ring[vertices] = ring[0];
+        return GEOMETRY_FACTORY.createPolygon(ring);
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 import java.util.Collections;
@@ -12,6 +13,7 @@ import java.util.Collections;
 @EnableTransactionManagement
 @EnableAspectJAutoProxy
 @EnableCaching
+@EnableScheduling
 public class ZoningApplication {
 	public static void main(String[] args) {
 		SpringApplication app = new SpringApplication(ZoningApplication.class);
@@ -1,8 +1,7 @@
 package com.realestate.zoningupdate.aspect;
 
+import com.realestate.zoningupdate.dto.ZoningAreaUpdateRequest;
 import com.realestate.zoningupdate.dto.ZoningUpdateRequest;
-import com.realestate.zoningupdate.model.Parcel;
-import com.realestate.zoningupdate.repository.ParcelRepository;
 import com.realestate.zoningupdate.service.AuditService;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.JoinPoint;
@@ -13,11 +12,6 @@ import org.aspectj.lang.annotation.Before;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
-
 @Aspect
 @Component
 @Slf4j
@@ -26,10 +20,8 @@ public class AuditAspect {
     @Autowired
     private AuditService auditService;
 
-    @Autowired
-    private ParcelRepository parcelRepository;
-
-    @Before("execution(* com.realestate.zoningupdate.controller.ParcelController.updateZoning(..))")
+    @Before("execution(* com.realestate.zoningupdate.controller.ParcelController.updateZoning(..)) || " +
+            "execution(* com.realestate.zoningupdate.controller.ParcelController.submitZoningUpdateJob(..))")
     public void beforeZoningUpdate(JoinPoint joinPoint) {
         Object[] args = joinPoint.getArgs();
         if (args.length > 0 && args[0] instanceof ZoningUpdateRequest) {
@@ -38,54 +30,18 @@ public class AuditAspect {
             // Add null checks to prevent NPE
             int parcelCount = (request.getParcelIds() != null) ? request.getParcelIds().size() : 0;
 
-            // Get details about the parcels being updated
-            StringBuilder detailsBuilder = new StringBuilder();
-            detailsBuilder.append("Request to update ").append(parcelCount).append(" parcels:\n");
-
-            if (request.getParcelIds() != null && !request.getParcelIds().isEmpty()) {
-                try {
-                    // Fetch current zoning information for all parcels
-                    List<Parcel> parcels = parcelRepository.findAllById(request.getParcelIds());
-                    Map<Integer, Parcel> parcelMap = parcels.stream()
-                            .collect(Collectors.toMap(Parcel::getId, p -> p));
-
-                    for (Integer parcelId : request.getParcelIds()) {
-                        Parcel parcel = parcelMap.get(parcelId);
-                        if (parcel != null) {
-                            detailsBuilder.append("Parcel ID: ").append(parcelId)
-                                    .append(", Current: [")
-                                    .append(parcel.getZoning_typ() != null ? parcel.getZoning_typ() : "Unknown")
-                                    .append(" - ")
-                                    .append(parcel.getZoning_sub() != null ? parcel.getZoning_sub() : "Unknown")
-                                    .append("], Requested: [")
-                                    .append(request.getZoningType() != null ? request.getZoningType() : "Unknown")
-                                    .append(" - ")
-                                    .append(request.getZoningSubType() != null ? request.getZoningSubType() : "Unknown")
-                                    .append("]\n");
-                        } else {
-                            detailsBuilder.append("Parcel ID: ").append(parcelId)
-                                    .append(" (not found), Requested: [")
-                                    .append(request.getZoningType() != null ? request.getZoningType() : "Unknown")
-                                    .append(" - ")
-                                    .append(request.getZoningSubType() != null ? request.getZoningSubType() : "Unknown")
-                                    .append("]\n");
-                        }
-                    }
-                } catch (Exception e) {
-                    log.warn("Could not fetch detailed parcel information for audit log", e);
-                    // Fallback to basic information if we can't get detailed info
-                    detailsBuilder = new StringBuilder();
-                    detailsBuilder.append("Request to update ").append(parcelCount)
-                            .append(" parcels to zoning type: ")
-                            .append(request.getZoningType() != null ? request.getZoningType() : "Unknown")
-                            .append(", sub-type: ")
-                            .append(request.getZoningSubType() != null ? request.getZoningSubType() : "Unknown");
-                }
-            }
+            // Previous zoning is recorded by ParcelService from the update itself,
+            // so the request entry only describes what was asked for
+            String details = String.format(
+                    "Request to update %d parcels to zoning type: %s, sub-type: %s",
+                    parcelCount,
+                    request.getZoningType() != null ? request.getZoningType() : "Unknown",
+                    request.getZoningSubType() != null ? request.getZoningSubType() : "Unknown"
+            );
 
             // Provide default username if null
             String username = (request.getUsername() != null) ? request.getUsername() : "anonymous";
-            auditService.logAuditEvent("ZONING_UPDATE_REQUEST", detailsBuilder.toString(), username);
+            auditService.logAuditEvent("ZONING_UPDATE_REQUEST", details, username);
         }
     }
 
@@ -147,4 +103,56 @@ public class AuditAspect {
             auditService.logAuditEvent("ZONING_UPDATE_FAILURE", detailsBuilder.toString(), username);
         }
     }
-}
\ No newline at end of file
+
+    @Before("execution(* com.realestate.zoningupdate.controller.ParcelController.updateZoningInArea(..))")
+    public void beforeAreaZoningUpdate(JoinPoint joinPoint) {
+        Object[] args = joinPoint.getArgs();
+        if (args.length > 0 && args[0] instanceof ZoningAreaUpdateRequest) {
+            ZoningAreaUpdateRequest request = (ZoningAreaUpdateRequest) args[0];
+
+            String details = String.format(
+                    "Request to update parcels in %s%s to zoning type: %s, sub-type: %s",
+                    describeArea(request),
+                    request.getCurrentZoningType() != null
+                            ? " currently zoned '" + request.getCurrentZoningType() + "'" : "",
+                    request.getZoningType() != null ? request.getZoningType() : "Unknown",
+                    request.getZoningSubType() != null ? request.getZoningSubType() : "Unknown"
+            );
+
+            // Provide default username if null
+            String username = (request.getUsername() != null) ? request.getUsername() : "anonymous";
+            auditService.logAuditEvent("ZONING_UPDATE_REQUEST", details, username);
+        }
+    }
+
+    @AfterThrowing(
+            pointcut = "execution(* com.realestate.zoningupdate.service.ParcelService.updateZoningInArea(..))",
+            throwing = "exception"
+    )
+    public void afterAreaZoningUpdateFailure(JoinPoint joinPoint, Exception exception) {
+        Object[] args = joinPoint.getArgs();
+        if (args.length > 0 && args[0] instanceof ZoningAreaUpdateRequest) {
+            ZoningAreaUpdateRequest request = (ZoningAreaUpdateRequest) args[0];
+
+            String details = String.format(
+                    "Failed to update zoning for parcels in %s. Error: %s. Attempted to update to type '%s', sub-type '%s'",
+                    describeArea(request),
+                    exception.getMessage() != null ? exception.getMessage() : "Unknown error",
+                    request.getZoningType() != null ? request.getZoningType() : "Unknown",
+                    request.getZoningSubType() != null ? request.getZoningSubType() : "Unknown"
+            );
+
+            // Provide default username if null
+            String username = (request.getUsername() != null) ? request.getUsername() : "anonymous";
+            auditService.logAuditEvent("ZONING_UPDATE_FAILURE", details, username);
+        }
+    }
+
+    private String describeArea(ZoningAreaUpdateRequest request) {
+        if (request.getGeometry() != null && !request.getGeometry().isNull()) {
+            return "a " + request.getGeometry().path("type").asText("geometry") + " area";
+        }
+        return String.format("bounds [N %s, S %s, E %s, W %s]",
+                request.getNorth(), request.getSouth(), request.getEast(), request.getWest());
+    }
+}
@@ -0,0 +1,54 @@
+package com.realestate.zoningupdate.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Registers caches that need different limits than the shared
+ * spring.cache.caffeine.spec. Caches record statistics so hit rates are
+ * published as cache.* metrics.
+ */
+@Configuration
+public class CacheConfig {
+
+    public static final String TILE_CACHE = "tileCache";
+    public static final String CLUSTER_CACHE = "clusterCache";
+
+    @Value("${app.map.tiles.cache-max-bytes:67108864}")
+    private long tileCacheMaxBytes;
+
+    @Value("${app.map.clustering.cache-max-entries:20000}")
+    private long clusterCacheMaxEntries;
+
+    @Value("${app.map.clustering.cache-ttl-minutes:720}")
+    private long clusterCacheTtlMinutes;
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> tileCacheCustomizer() {
+        // Vector tiles vary a lot in size, so bound the cache by bytes rather than entries
+        return cacheManager -> cacheManager.registerCustomCache(TILE_CACHE,
+                Caffeine.newBuilder()
+                        .maximumWeight(tileCacheMaxBytes)
+                        .<Object, Object>weigher((key, value) ->
+                                value instanceof byte[] bytes ? bytes.length : 1)
+                        .recordStats()
+                        .build());
+    }
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> clusterCacheCustomizer() {
+        // Cluster tiles are evicted precisely on zoning updates, so they do not need the short default TTL
+        return cacheManager -> cacheManager.registerCustomCache(CLUSTER_CACHE,
+                Caffeine.newBuilder()
+                        .maximumSize(clusterCacheMaxEntries)
+                        .expireAfterWrite(Duration.ofMinutes(clusterCacheTtlMinutes))
+                        .recordStats()
+                        .build());
+    }
+}
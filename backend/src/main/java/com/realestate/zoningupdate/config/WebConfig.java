@@ -1,5 +1,6 @@
 package com.realestate.zoningupdate.config;
 
+import com.realestate.zoningupdate.controller.ParcelController;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -35,6 +36,9 @@ public class WebConfig {
         config.addAllowedHeader("*");
         config.addAllowedMethod("*");
 
+        // Let browsers read the pagination cursor on paged responses
+        config.addExposedHeader(ParcelController.NEXT_CURSOR_HEADER);
+
         // Allow credentials
         config.setAllowCredentials(false);  // Change to true only if using cookies
 
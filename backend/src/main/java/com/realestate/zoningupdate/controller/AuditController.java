@@ -1,6 +1,8 @@
 package com.realestate.zoningupdate.controller;
 
 import com.realestate.zoningupdate.dto.AuditLogEntry;
+import com.realestate.zoningupdate.dto.AuditLogQuery;
+import com.realestate.zoningupdate.dto.CursorPage;
 import com.realestate.zoningupdate.service.AuditService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,15 +22,22 @@ public class AuditController {
 
 
     /**
-     * Retrieve all audit logs
+     * Retrieve a page of audit logs, newest first. The cursor for the next page is
+     * returned in the X-Next-Cursor header and is absent on the last page.
      *
-     * @return List of audit log entries
+     * @param query Optional from/to (ISO date-time), user and action filters, limit and cursor
+     * @return Page of audit log entries
      */
     @GetMapping("/logs")
-    public ResponseEntity<List<AuditLogEntry>> getAllAuditLogs() {
-        log.info("Fetching all audit logs");
-        List<AuditLogEntry> logs = auditService.getAllAuditLogs();
-        return ResponseEntity.ok(logs);
+    public ResponseEntity<List<AuditLogEntry>> getAuditLogs(AuditLogQuery query) {
+        log.info("Fetching audit logs: {}", query);
+        CursorPage<AuditLogEntry> page = auditService.queryAuditLogs(query);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(ParcelController.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 
     /**
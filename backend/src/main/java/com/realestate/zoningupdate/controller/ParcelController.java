@@ -1,19 +1,35 @@
 package com.realestate.zoningupdate.controller;
 
+import com.realestate.zoningupdate.dto.BoundsStatisticsDTO;
 import com.realestate.zoningupdate.dto.ClusterDTO;
+import com.realestate.zoningupdate.dto.CursorPage;
 import com.realestate.zoningupdate.dto.ParcelDTO;
+import com.realestate.zoningupdate.dto.ParcelFeature;
+import com.realestate.zoningupdate.dto.ParcelPageRequest;
+import com.realestate.zoningupdate.dto.ZoningAreaUpdateRequest;
+import com.realestate.zoningupdate.dto.ZoningUpdateJob;
 import com.realestate.zoningupdate.dto.ZoningUpdateRequest;
 import com.realestate.zoningupdate.exception.ErrorResponse;
 import com.realestate.zoningupdate.service.ParcelService;
+import com.realestate.zoningupdate.service.VectorTileService;
+import com.realestate.zoningupdate.service.ZoningUpdateJobService;
+import com.realestate.zoningupdate.util.ParcelFormat;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import jakarta.validation.Valid;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/parcels")
@@ -22,28 +38,88 @@ import java.util.Map;
 @Slf4j
 public class ParcelController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final MediaType MVT_MEDIA_TYPE = MediaType.parseMediaType("application/vnd.mapbox-vector-tile");
+
     private final ParcelService parcelService;
+    private final VectorTileService vectorTileService;
+    private final ZoningUpdateJobService zoningUpdateJobService;
+
+    @Value("${app.map.tiles.max-age-seconds:60}")
+    private long tileMaxAgeSeconds;
 
+    /**
+     * Get a page of parcels. Walk the full dataset by passing the returned
+     * nextCursor as the cursor parameter until it is null.
+     *
+     * @param pageRequest cursor, limit, optional north/south/east/west bounds and zoningType filter
+     * @return Page of parcels with the next cursor
+     */
     @GetMapping
-    public ResponseEntity<List<ParcelDTO>> getAllParcels() {
-        log.info("Fetching all parcels");
-        return ResponseEntity.ok(parcelService.getAllParcels());
+    public ResponseEntity<CursorPage<ParcelDTO>> getAllParcels(ParcelPageRequest pageRequest) {
+        log.info("Fetching parcels page: {}", pageRequest);
+        return ResponseEntity.ok(parcelService.getParcels(pageRequest));
     }
 
+    /**
+     * Get a page of parcels as a GeoJSON FeatureCollection, or in the compact binary
+     * encoding when the client sends Accept: application/vnd.zoning.parcels+binary.
+     * The cursor for the next page is returned in the X-Next-Cursor header and is
+     * absent on the last page.
+     *
+     * @param pageRequest cursor, limit, optional north/south/east/west bounds and zoningType filter
+     * @param accept Accept header used to negotiate the response format
+     * @return Streaming response body
+     */
     @GetMapping("/geojson")
-    public ResponseEntity<Map<String, Object>> getAllParcelsGeoJSON() {
-        log.info("Fetching all parcels as GeoJSON");
-        return ResponseEntity.ok(parcelService.getAllParcelsGeoJSON());
+    public ResponseEntity<StreamingResponseBody> getAllParcelsGeoJSON(
+            ParcelPageRequest pageRequest,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        ParcelFormat format = ParcelFormat.fromAcceptHeader(accept);
+        log.info("Fetching parcels page as {}: {}", format, pageRequest);
+
+        CursorPage<ParcelFeature> page = parcelService.getParcelPage(pageRequest);
+        StreamingResponseBody body = out -> parcelService.writeParcels(page.getItems(), format, out);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .varyBy(HttpHeaders.ACCEPT);
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(body);
     }
 
+    /**
+     * Stream parcels within the specified bounds as a GeoJSON FeatureCollection, or in
+     * the compact binary encoding when requested through the Accept header.
+     *
+     * @param north Northern latitude bound
+     * @param south Southern latitude bound
+     * @param east Eastern longitude bound
+     * @param west Western longitude bound
+     * @param zoom Optional map zoom level; geometries are simplified to the detail visible at this zoom
+     * @param accept Accept header used to negotiate the response format
+     * @return Streaming response body
+     */
     @GetMapping("/geojson/bounds")
-    public ResponseEntity<Map<String, Object>> getParcelsByBounds(
+    public ResponseEntity<StreamingResponseBody> getParcelsByBounds(
             @RequestParam double north,
             @RequestParam double south,
             @RequestParam double east,
-            @RequestParam double west) {
-        log.info("Fetching parcels within bounds: N:{}, S:{}, E:{}, W:{}", north, south, east, west);
-        return ResponseEntity.ok(parcelService.getParcelsByBounds(north, south, east, west));
+            @RequestParam double west,
+            @RequestParam(required = false) Integer zoom,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        ParcelFormat format = ParcelFormat.fromAcceptHeader(accept);
+        log.info("Fetching parcels within bounds: N:{}, S:{}, E:{}, W:{}, zoom:{}, format:{}",
+                north, south, east, west, zoom, format);
+        StreamingResponseBody body = out ->
+                parcelService.writeParcelsByBounds(north, south, east, west, zoom, format, out);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(body);
     }
 
     /**
@@ -70,6 +146,27 @@ public class ParcelController {
         return ResponseEntity.ok(parcelService.getParcelClusters(north, south, east, west, zoom));
     }
 
+    /**
+     * Get parcels for a z/x/y map tile encoded as a Mapbox Vector Tile.
+     * Tile responses are cacheable by clients and shared proxies.
+     *
+     * @param z Tile zoom level
+     * @param x Tile column
+     * @param y Tile row
+     * @return MVT-encoded parcel layer
+     */
+    @GetMapping("/tiles/{z}/{x}/{y}.mvt")
+    public ResponseEntity<byte[]> getParcelTile(
+            @PathVariable int z,
+            @PathVariable int x,
+            @PathVariable int y) {
+        log.debug("Fetching parcel tile {}/{}/{}", z, x, y);
+        return ResponseEntity.ok()
+                .contentType(MVT_MEDIA_TYPE)
+                .cacheControl(CacheControl.maxAge(tileMaxAgeSeconds, TimeUnit.SECONDS).cachePublic())
+                .body(vectorTileService.getParcelTile(z, x, y));
+    }
+
     @PostMapping("/update-zoning")
     public ResponseEntity<?> updateZoning(@Valid @RequestBody ZoningUpdateRequest request) {
         log.info("Received zoning update request for {} parcels", request.getParcelIds().size());
@@ -90,9 +187,89 @@ public class ParcelController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Rezone every parcel inside a GeoJSON polygon or bounding box. Parcels are
+     * selected and updated by the database, so the client does not send their IDs.
+     *
+     * @param request Area, optional current zoning filter and new zoning information
+     * @return Number of updated parcels
+     */
+    @PostMapping("/update-zoning/area")
+    public ResponseEntity<?> updateZoningInArea(@Valid @RequestBody ZoningAreaUpdateRequest request) {
+        log.info("Received zoning update request for an area");
+
+        // Set default username if not provided
+        if (request.getUsername() == null || request.getUsername().trim().isEmpty()) {
+            request.setUsername("anonymous");
+        }
+
+        int updatedCount = parcelService.updateZoningInArea(request);
+
+        Map<String, Object> response = Map.of(
+                "success", true,
+                "message", "Zoning updated successfully",
+                "updatedParcels", updatedCount
+        );
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Queue a zoning update and return without waiting for it. Poll the returned
+     * job with GET /jobs/{id} until its status is SUCCEEDED or FAILED.
+     *
+     * @param request Contains parcel IDs, new zoning information and an optional commit mode
+     * @return The queued job
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<ZoningUpdateJob> submitZoningUpdateJob(@Valid @RequestBody ZoningUpdateRequest request) {
+        log.info("Received zoning update job for {} parcels", request.getParcelIds().size());
+
+        // Set default username if not provided
+        if (request.getUsername() == null || request.getUsername().trim().isEmpty()) {
+            request.setUsername("anonymous");
+        }
+
+        ZoningUpdateJob job = zoningUpdateJobService.submit(request);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/{id}").buildAndExpand(job.getId()).toUri())
+                .body(job);
+    }
+
+    /**
+     * Get the status, progress and error of a zoning update job
+     *
+     * @param id Job ID
+     * @return The job
+     */
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ZoningUpdateJob> getZoningUpdateJob(@PathVariable String id) {
+        return ResponseEntity.ok(zoningUpdateJobService.getJob(id));
+    }
+
     @GetMapping("/statistics")
     public ResponseEntity<Map<String, Long>> getZoningStatistics() {
         log.info("Fetching zoning type statistics");
         return ResponseEntity.ok(parcelService.getZoningTypeStatistics());
     }
+
+    /**
+     * Get parcel counts by zoning type and sub-type, and parcel area, for a viewport
+     *
+     * @param north Northern latitude bound
+     * @param south Southern latitude bound
+     * @param east Eastern longitude bound
+     * @param west Western longitude bound
+     * @return Statistics for the parcels intersecting the bounds
+     */
+    @GetMapping("/statistics/bounds")
+    public ResponseEntity<BoundsStatisticsDTO> getZoningStatisticsByBounds(
+            @RequestParam double north,
+            @RequestParam double south,
+            @RequestParam double east,
+            @RequestParam double west) {
+        log.info("Fetching zoning statistics for bounds: N:{}, S:{}, E:{}, W:{}", north, south, east, west);
+        return ResponseEntity.ok(parcelService.getBoundsStatistics(north, south, east, west));
+    }
 }
@@ -0,0 +1,30 @@
+package com.realestate.zoningupdate.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Query parameters for paged audit log reads, newest entries first.
+ * All filters are optional.
+ */
+@Data
+public class AuditLogQuery {
+    // Inclusive lower bound on the entry timestamp
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    // Exclusive upper bound on the entry timestamp
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+
+    private String user;
+    private String action;
+
+    // Requested page size, capped by audit.query.max-limit
+    private Integer limit;
+
+    // Opaque cursor returned by the previous page
+    private String cursor;
+}
@@ -0,0 +1,29 @@
+package com.realestate.zoningupdate.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * DTO with zoning statistics for the parcels intersecting a map viewport
+ */
+@Data
+@NoArgsConstructor
+public class BoundsStatisticsDTO {
+    // Number of parcels in the bounds
+    private long totalParcels;
+
+    // Combined parcel area in square meters
+    private double totalArea;
+
+    // Parcel counts by zoning type
+    private Map<String, Long> byZoningType = new TreeMap<>();
+
+    // Parcel counts by zoning type, then by zoning sub-type
+    private Map<String, Map<String, Long>> byZoningSubType = new TreeMap<>();
+
+    // Parcel area in square meters by zoning type
+    private Map<String, Double> areaByZoningType = new TreeMap<>();
+}
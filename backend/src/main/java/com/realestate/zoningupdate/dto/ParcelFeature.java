@@ -0,0 +1,80 @@
+package com.realestate.zoningupdate.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKBReader;
+
+/**
+ * Read model for map rendering: only the parcel columns that are sent to clients.
+ * Built from native projection rows rather than managed Parcel entities, so reads
+ * skip the persistence context and the unused columns entirely.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParcelFeature {
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory(new PrecisionModel(), 4326);
+
+    private Integer id;
+    private Polygon geom;
+    private String name;
+    private String owner;
+    private String mailCity;
+    private String mailZip;
+    private String mailadd;
+    private String parcelnumb;
+    private String zoning;
+    private String zoningSub;
+    private String zoningType;
+
+    /**
+     * Build a feature from a row selected with ParcelRepository.FEATURE_COLUMNS
+     *
+     * @param row Projection row
+     * @return The mapped feature
+     * @throws IllegalStateException if the geometry bytes are not a valid polygon
+     */
+    public static ParcelFeature fromRow(Object[] row) {
+        return new ParcelFeature(
+                row[0] != null ? ((Number) row[0]).intValue() : null,
+                readPolygon((byte[]) row[1]),
+                (String) row[2],
+                (String) row[3],
+                (String) row[4],
+                (String) row[5],
+                (String) row[6],
+                (String) row[7],
+                (String) row[8],
+                (String) row[9],
+                (String) row[10]
+        );
+    }
+
+    /**
+     * Copy of this feature with different zoning type and sub-type
+     */
+    public ParcelFeature withZoning(String newZoningType, String newZoningSub) {
+        return new ParcelFeature(id, geom, name, owner, mailCity, mailZip, mailadd, parcelnumb,
+                zoning, newZoningSub, newZoningType);
+    }
+
+    private static Polygon readPolygon(byte[] wkb) {
+        if (wkb == null) {
+            return null;
+        }
+        try {
+            // WKBReader keeps parsing state, so a new instance is used per call
+            Geometry geometry = new WKBReader(GEOMETRY_FACTORY).read(wkb);
+            return geometry instanceof Polygon polygon ? polygon : null;
+        } catch (ParseException e) {
+            throw new IllegalStateException("Invalid parcel geometry", e);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.realestate.zoningupdate.dto;
+
+import lombok.Data;
+
+/**
+ * Query parameters for keyset-paginated parcel listings.
+ * Bounds are optional but must be given together.
+ */
+@Data
+public class ParcelPageRequest {
+    // Opaque cursor returned by the previous page
+    private String cursor;
+
+    // Requested page size, capped by app.parcels.page.max-size
+    private Integer limit;
+
+    private Double north;
+    private Double south;
+    private Double east;
+    private Double west;
+
+    // Optional filter on zoning_typ
+    private String zoningType;
+
+    public boolean hasBounds() {
+        return north != null || south != null || east != null || west != null;
+    }
+}
@@ -0,0 +1,36 @@
+package com.realestate.zoningupdate.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Rezones every parcel inside an area. The area is either a GeoJSON Polygon or
+ * MultiPolygon in WGS84, or a north/south/east/west bounding box.
+ */
+@Data
+public class ZoningAreaUpdateRequest {
+
+    // GeoJSON geometry object; takes precedence over the bounds
+    private JsonNode geometry;
+
+    private Double north;
+    private Double south;
+    private Double east;
+    private Double west;
+
+    // Optional, only parcels currently of this zoning type are updated
+    private String currentZoningType;
+
+    @NotNull(message = "Zoning type cannot be null")
+    @Size(min = 1, max = 50, message = "Zoning type must be between 1 and 50 characters")
+    private String zoningType;
+
+    @NotNull(message = "Zoning sub-type cannot be null")
+    @Size(min = 1, max = 50, message = "Zoning sub-type must be between 1 and 50 characters")
+    private String zoningSubType;
+
+    private String username;
+}
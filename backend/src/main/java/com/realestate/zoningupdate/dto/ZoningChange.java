@@ -0,0 +1,32 @@
+package com.realestate.zoningupdate.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Zoning of a parcel as it was before an update, returned by the update statement itself
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ZoningChange {
+
+    private Integer parcelId;
+    private String previousType;
+    private String previousSubType;
+
+    /**
+     * Build a change from a row returned by ParcelRepository.updateZoningReturningRows
+     *
+     * @param row Returned row: id, previous zoning type, previous zoning sub-type
+     * @return The mapped change
+     */
+    public static ZoningChange fromRow(Object[] row) {
+        return new ZoningChange(
+                row[0] != null ? ((Number) row[0]).intValue() : null,
+                (String) row[1],
+                (String) row[2]
+        );
+    }
+}
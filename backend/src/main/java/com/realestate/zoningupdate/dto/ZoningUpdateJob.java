@@ -0,0 +1,38 @@
+package com.realestate.zoningupdate.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Status of a zoning update that runs in the background.
+ * Progress fields are written by the worker thread and read by status requests.
+ */
+@Data
+@NoArgsConstructor
+public class ZoningUpdateJob {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED
+    }
+
+    private String id;
+    private volatile Status status;
+    private String zoningType;
+    private String zoningSubType;
+    private String username;
+    private ZoningUpdateRequest.CommitMode commitMode;
+    private int totalParcels;
+
+    // Parcels applied so far; with ALL_OR_NOTHING none remain applied if the job fails
+    private volatile int processedParcels;
+    private volatile String error;
+
+    private LocalDateTime submittedAt;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+}
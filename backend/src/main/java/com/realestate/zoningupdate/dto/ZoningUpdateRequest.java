@@ -10,6 +10,16 @@ import java.util.List;
 @Data
 public class ZoningUpdateRequest {
 
+    /**
+     * How a request that is processed in several chunks is committed
+     */
+    public enum CommitMode {
+        // One transaction for all chunks; any failure rolls back the whole request
+        ALL_OR_NOTHING,
+        // One transaction per chunk; chunks committed before a failure stay applied
+        PER_CHUNK
+    }
+
     @NotNull(message = "Parcel IDs list cannot be null")
     @NotEmpty(message = "At least one parcel ID must be specified")
     private List<Integer> parcelIds;
@@ -23,4 +33,7 @@ public class ZoningUpdateRequest {
     private String zoningSubType;
 
     private String username;
+
+    // Optional, defaults to app.zoning.update.commit-mode
+    private CommitMode commitMode;
 }
@@ -0,0 +1,23 @@
+package com.realestate.zoningupdate.event;
+
+import com.realestate.zoningupdate.dto.ZoningChange;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Published by ParcelService when zoning has been changed for a set of parcels.
+ * Listeners that keep derived state (indexes, caches, counters) in sync should
+ * consume it after the transaction commits.
+ */
+@Data
+@AllArgsConstructor
+public class ZoningUpdatedEvent {
+    private List<Integer> parcelIds;
+    private String zoningType;
+    private String zoningSubType;
+
+    // Previous zoning of each updated parcel
+    private List<ZoningChange> changes;
+}
@@ -0,0 +1,17 @@
+package com.realestate.zoningupdate.exception;
+
+/**
+ * Exception thrown when a request cannot be accepted because the server is at capacity
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+
+    public ServiceBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,61 +1,328 @@
 package com.realestate.zoningupdate.repository;
 
+import com.realestate.zoningupdate.dto.ParcelFeature;
+import com.realestate.zoningupdate.dto.ZoningChange;
 import com.realestate.zoningupdate.model.Parcel;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Repository
 public interface ParcelRepository extends JpaRepository<Parcel, Integer> {
 
-    @Modifying
-    @Query("UPDATE Parcel p SET p.zoning_typ = :zoningType, p.zoning_sub = :zoningSubType WHERE p.id IN :ids")
-    int updateZoningForParcels(
-            @Param("ids") List<Integer> ids,
+    /**
+     * Locks the target rows and keeps their current zoning in a CTE, so a single
+     * statement both applies the update and returns the previous values. IDs are bound
+     * as one array parameter, so the statement text and parameter count do not grow
+     * with the number of parcels.
+     */
+    @Query(value = "WITH previous AS (" +
+            "SELECT id, zoning_typ, zoning_sub FROM real_estate_zoning WHERE id = ANY(:ids) FOR UPDATE) " +
+            "UPDATE real_estate_zoning p SET zoning_typ = :zoningType, zoning_sub = :zoningSubType " +
+            "FROM previous WHERE p.id = previous.id " +
+            "RETURNING p.id, previous.zoning_typ, previous.zoning_sub",
+            nativeQuery = true)
+    List<Object[]> updateZoningReturningRows(
+            @Param("ids") Integer[] ids,
             @Param("zoningType") String zoningType,
             @Param("zoningSubType") String zoningSubType
     );
 
+    /**
+     * Lock the given parcels for update and return the IDs that exist
+     *
+     * @param ids Parcel IDs
+     * @return IDs of the parcels that were found
+     */
+    @Query(value = "SELECT id FROM real_estate_zoning WHERE id = ANY(:ids) FOR UPDATE", nativeQuery = true)
+    List<Integer> lockExistingIds(@Param("ids") Integer[] ids);
+
+    /**
+     * Update zoning for the given parcels and return what each one was changed from.
+     * Must be called inside a read-write transaction.
+     *
+     * @param ids           Parcel IDs to update
+     * @param zoningType    New zoning type
+     * @param zoningSubType New zoning sub-type
+     * @return One change per updated parcel; ids that do not exist are absent
+     */
+    default List<ZoningChange> updateZoningReturningPrevious(List<Integer> ids, String zoningType,
+                                                             String zoningSubType) {
+        return updateZoningReturningRows(ids.toArray(new Integer[0]), zoningType, zoningSubType).stream()
+                .map(ZoningChange::fromRow)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Selects the parcels whose interior point lies in a GeoJSON area and updates them
+     * in the same statement. The bounding-box test lets PostGIS use the geometry index,
+     * and at most :maxParcels rows are selected, locked and updated.
+     */
+    @Query(value = "WITH area AS (SELECT ST_SetSRID(ST_GeomFromGeoJSON(:geometry), 4326) AS geom), " +
+            "previous AS (SELECT z.id, z.zoning_typ, z.zoning_sub FROM real_estate_zoning z, area " +
+            "WHERE z.geom && area.geom AND ST_Intersects(ST_PointOnSurface(z.geom), area.geom) " +
+            "AND (CAST(:currentZoningType AS text) IS NULL OR z.zoning_typ = :currentZoningType) " +
+            "LIMIT :maxParcels FOR UPDATE OF z) " +
+            "UPDATE real_estate_zoning p SET zoning_typ = :zoningType, zoning_sub = :zoningSubType " +
+            "FROM previous WHERE p.id = previous.id " +
+            "RETURNING p.id, previous.zoning_typ, previous.zoning_sub",
+            nativeQuery = true)
+    List<Object[]> updateZoningInAreaReturningRows(
+            @Param("geometry") String geometry,
+            @Param("currentZoningType") String currentZoningType,
+            @Param("zoningType") String zoningType,
+            @Param("zoningSubType") String zoningSubType,
+            @Param("maxParcels") int maxParcels
+    );
+
+    /**
+     * Update zoning for every parcel inside an area and return what each one was changed from.
+     * Must be called inside a read-write transaction.
+     *
+     * @param geometry          GeoJSON Polygon or MultiPolygon in WGS84
+     * @param currentZoningType Optional filter on the current zoning type, null for all
+     * @param zoningType        New zoning type
+     * @param zoningSubType     New zoning sub-type
+     * @param maxParcels        Most parcels to update; pass one over a limit to detect areas exceeding it
+     * @return One change per updated parcel
+     */
+    default List<ZoningChange> updateZoningInAreaReturningPrevious(String geometry, String currentZoningType,
+                                                                   String zoningType, String zoningSubType,
+                                                                   int maxParcels) {
+        return updateZoningInAreaReturningRows(geometry, currentZoningType, zoningType, zoningSubType, maxParcels)
+                .stream()
+                .map(ZoningChange::fromRow)
+                .collect(Collectors.toList());
+    }
+
     @Query("SELECT p.zoning_typ, COUNT(p) FROM Parcel p GROUP BY p.zoning_typ")
     List<Object[]> countParcelsByZoningType();
 
-    @Query("SELECT p FROM Parcel p WHERE ST_Intersects(p.geom, ST_MakeEnvelope(:west, :south, :east, :north, 4326))")
-    List<Parcel> findByBounds(
+    /**
+     * Count parcels and sum their area (square meters, on the spheroid) by zoning type
+     * and sub-type within the specified bounds
+     *
+     * @return Rows of zoning type, zoning sub-type, parcel count, area
+     */
+    @Query(value = "SELECT COALESCE(zoning_typ, 'Unknown'), COALESCE(zoning_sub, 'Unknown'), " +
+            "COUNT(*), COALESCE(SUM(ST_Area(CAST(geom AS geography))), 0) " +
+            "FROM real_estate_zoning WHERE " + BOUNDS_FILTER + " GROUP BY 1, 2",
+            nativeQuery = true)
+    List<Object[]> summarizeZoningByBounds(
             @Param("west") double west,
             @Param("south") double south,
             @Param("east") double east,
             @Param("north") double north);
 
     /**
-     * Find clusters of parcels within the specified bounds.
-     * This query uses PostgreSQL's spatial functions to:
-     * 1. Filter parcels within the provided bounds
-     * 2. Create a grid based on the zoom level
-     * 3. Group parcels into these grid cells
-     * 4. Count parcels by zoning type in each cell
-     * 5. Return cluster data with center points and counts
+     * Columns selected for map reads, in the order expected by ParcelFeature.fromRow.
+     * Geometry is fetched as binary WKB and decoded without Hibernate's type machinery.
+     */
+    String FEATURE_COLUMNS = "id, ST_AsBinary(geom) AS geom_wkb, name, owner, mail_city, mail_zip, " +
+            "mailadd, parcelnumb, zoning, zoning_sub, zoning_typ";
+
+    String BOUNDS_FILTER = "ST_Intersects(geom, ST_MakeEnvelope(:west, :south, :east, :north, 4326))";
+
+    @Query(value = "SELECT " + FEATURE_COLUMNS + " FROM real_estate_zoning WHERE " + BOUNDS_FILTER,
+            nativeQuery = true)
+    List<Object[]> findFeatureRowsByBounds(
+            @Param("west") double west,
+            @Param("south") double south,
+            @Param("east") double east,
+            @Param("north") double north);
+
+    /**
+     * Find the map features of parcels intersecting the specified bounds
+     *
+     * @param west  Western longitude bound
+     * @param south Southern latitude bound
+     * @param east  Eastern longitude bound
+     * @param north Northern latitude bound
+     * @return Features within the bounds
+     */
+    default List<ParcelFeature> findFeaturesByBounds(double west, double south, double east, double north) {
+        return findFeatureRowsByBounds(west, south, east, north).stream()
+                .map(ParcelFeature::fromRow)
+                .collect(Collectors.toList());
+    }
+
+    @Query(value = "SELECT " + FEATURE_COLUMNS + " FROM real_estate_zoning WHERE id > :afterId " +
+            "AND (CAST(:zoningType AS text) IS NULL OR zoning_typ = :zoningType) " +
+            "ORDER BY id LIMIT :limit",
+            nativeQuery = true)
+    List<Object[]> findFeatureRowsAfter(
+            @Param("afterId") int afterId,
+            @Param("zoningType") String zoningType,
+            @Param("limit") int limit);
+
+    @Query(value = "SELECT " + FEATURE_COLUMNS + " FROM real_estate_zoning WHERE id > :afterId " +
+            "AND (CAST(:zoningType AS text) IS NULL OR zoning_typ = :zoningType) " +
+            "AND " + BOUNDS_FILTER + " ORDER BY id LIMIT :limit",
+            nativeQuery = true)
+    List<Object[]> findFeatureRowsAfterByBounds(
+            @Param("afterId") int afterId,
+            @Param("zoningType") String zoningType,
+            @Param("west") double west,
+            @Param("south") double south,
+            @Param("east") double east,
+            @Param("north") double north,
+            @Param("limit") int limit);
+
+    /**
+     * Fetch a page of features with ids greater than the given id (keyset pagination)
+     *
+     * @param afterId    Id of the last parcel on the previous page, or 0 for the first page
+     * @param zoningType Optional zoning type filter, null for all
+     * @param limit      Maximum number of features to return
+     * @return Features ordered by id
+     */
+    default List<ParcelFeature> findFeaturesAfter(int afterId, String zoningType, int limit) {
+        return findFeatureRowsAfter(afterId, zoningType, limit).stream()
+                .map(ParcelFeature::fromRow)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Fetch a page of features within the specified bounds with ids greater than the given id
+     *
+     * @param afterId    Id of the last parcel on the previous page, or 0 for the first page
+     * @param zoningType Optional zoning type filter, null for all
+     * @param west       Western longitude bound
+     * @param south      Southern latitude bound
+     * @param east       Eastern longitude bound
+     * @param north      Northern latitude bound
+     * @param limit      Maximum number of features to return
+     * @return Features ordered by id
+     */
+    default List<ParcelFeature> findFeaturesAfterByBounds(int afterId, String zoningType,
+                                                          double west, double south, double east, double north,
+                                                          int limit) {
+        return findFeatureRowsAfterByBounds(afterId, zoningType, west, south, east, north, limit).stream()
+                .map(ParcelFeature::fromRow)
+                .collect(Collectors.toList());
+    }
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = "SELECT " + FEATURE_COLUMNS + " FROM real_estate_zoning ORDER BY id", nativeQuery = true)
+    Stream<Object[]> streamFeatureRows();
+
+    /**
+     * Stream every parcel with a geometry for the in-memory spatial index. Columns are
+     * FEATURE_COLUMNS followed by the area in square meters on the spheroid, as summed by
+     * summarizeZoningByBounds. Must be consumed inside a transaction and closed after use.
+     *
+     * @return A stream of rows ordered by id
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = "SELECT " + FEATURE_COLUMNS + ", ST_Area(CAST(geom AS geography)) " +
+            "FROM real_estate_zoning WHERE geom IS NOT NULL ORDER BY id",
+            nativeQuery = true)
+    Stream<Object[]> streamIndexRows();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = "SELECT " + FEATURE_COLUMNS + " FROM real_estate_zoning WHERE " + BOUNDS_FILTER,
+            nativeQuery = true)
+    Stream<Object[]> streamFeatureRowsByBounds(
+            @Param("west") double west,
+            @Param("south") double south,
+            @Param("east") double east,
+            @Param("north") double north);
+
+    /**
+     * Stream the map features of every parcel using a server-side cursor instead of
+     * materializing the whole table. Must be consumed inside a transaction and closed after use.
+     *
+     * @return A stream of features ordered by id
+     */
+    default Stream<ParcelFeature> streamFeatures() {
+        return streamFeatureRows().map(ParcelFeature::fromRow);
+    }
+
+    /**
+     * Stream the map features of parcels intersecting the specified bounds using a
+     * server-side cursor. Must be consumed inside a transaction and closed after use.
      *
      * @param west  Western longitude bound
      * @param south Southern latitude bound
      * @param east  Eastern longitude bound
      * @param north Northern latitude bound
-     * @param gridSize  Map zoom level (used to calculate grid size)
+     * @return A stream of features within the bounds
+     */
+    default Stream<ParcelFeature> streamFeaturesByBounds(double west, double south, double east, double north) {
+        return streamFeatureRowsByBounds(west, south, east, north).map(ParcelFeature::fromRow);
+    }
+
+    /**
+     * Find the centroids of the given parcels as [x, y] rows
+     *
+     * @param ids Parcel ids
+     * @return One row per parcel with a geometry
+     */
+    @Query(value = "SELECT ST_X(ST_Centroid(geom)), ST_Y(ST_Centroid(geom)) " +
+            "FROM real_estate_zoning WHERE id = ANY(:ids) AND geom IS NOT NULL",
+            nativeQuery = true)
+    List<Object[]> findCentroids(@Param("ids") Integer[] ids);
+
+    /**
+     * Find the bounding boxes of the given parcels as [min x, min y, max x, max y] rows
+     *
+     * @param ids Parcel ids
+     * @return One row per parcel with a geometry
+     */
+    @Query(value = "SELECT ST_XMin(geom), ST_YMin(geom), ST_XMax(geom), ST_YMax(geom) " +
+            "FROM real_estate_zoning WHERE id = ANY(:ids) AND geom IS NOT NULL",
+            nativeQuery = true)
+    List<Object[]> findEnvelopes(@Param("ids") Integer[] ids);
+
+    /**
+     * Stream the clustering inputs of every parcel: centroid, envelope and zoning type.
+     * Columns are id, centroid x, centroid y, min x, min y, max x, max y, zoning_typ.
+     * Must be consumed inside a transaction and closed after use.
+     *
+     * @return A stream of rows ordered by id
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = "SELECT id, ST_X(ST_Centroid(geom)), ST_Y(ST_Centroid(geom)), " +
+            "ST_XMin(geom), ST_YMin(geom), ST_XMax(geom), ST_YMax(geom), zoning_typ " +
+            "FROM real_estate_zoning WHERE geom IS NOT NULL ORDER BY id",
+            nativeQuery = true)
+    Stream<Object[]> streamClusterPoints();
+
+    /**
+     * Find clusters of parcels for one cluster tile.
+     * This query uses PostgreSQL's spatial functions to:
+     * 1. Filter parcels whose bounding box touches the tile
+     * 2. Assign each parcel to the grid cell containing its centroid
+     * 3. Keep only cells inside the tile, so each parcel belongs to exactly one tile
+     * 4. Count parcels by zoning type in each cell
+     * 5. Return cluster data with center points and counts
+     *
+     * @param minCellX First grid column of the tile
+     * @param minCellY First grid row of the tile
+     * @param maxCellX Last grid column of the tile
+     * @param maxCellY Last grid row of the tile
+     * @param gridSize Grid cell size in degrees for the zoom level
      * @return A list of arrays containing the cluster data
      */
     @Query(value =
             "WITH parcels AS (" +
-                    "  SELECT id, geom, zoning_typ " +
+                    "  SELECT id, geom, zoning_typ, ST_Centroid(geom) AS centroid " +
                     "  FROM real_estate_zoning " +
-                    "  WHERE ST_Intersects(geom, ST_MakeEnvelope(:west, :south, :east, :north, 4326))" +
+                    "  WHERE geom && ST_MakeEnvelope(:minCellX * :gridSize, :minCellY * :gridSize, " +
+                    "                                (:maxCellX + 1) * :gridSize, (:maxCellY + 1) * :gridSize, 4326)" +
                     "), " +
-                    // Remove the extent CTE which requires a separate scan
                     "grid AS (" +
                     "  SELECT " +
-                    "    ST_SnapToGrid(geom, :gridSize, :gridSize) AS cell_geom, " +
+                    "    floor(ST_X(centroid) / :gridSize) AS cell_x, " +
+                    "    floor(ST_Y(centroid) / :gridSize) AS cell_y, " +
                     "    id, zoning_typ, geom " +
                     "  FROM parcels" +
                     "), " +
@@ -74,16 +341,18 @@ public interface ParcelRepository extends JpaRepository<Parcel, Integer> {
                     "      ST_XMax(ST_Extent(geom)), ST_YMax(ST_Extent(geom))" +
                     "    ] AS extent " +
                     "  FROM grid " +
-                    "  GROUP BY cell_geom " +
+                    "  WHERE cell_x BETWEEN :minCellX AND :maxCellX " +
+                    "    AND cell_y BETWEEN :minCellY AND :maxCellY " +
+                    "  GROUP BY cell_x, cell_y " +
                     "  HAVING COUNT(id) >= 10" +
                     ")" +
                     "SELECT center, total, zoning, extent FROM clusters",
             nativeQuery = true)
-    List<Object[]> findClusters(
-            @Param("west") double west,
-            @Param("south") double south,
-            @Param("east") double east,
-            @Param("north") double north,
-            @Param("gridSize") double gridSize // Calculate this based on zoom
+    List<Object[]> findClustersInCells(
+            @Param("minCellX") long minCellX,
+            @Param("minCellY") long minCellY,
+            @Param("maxCellX") long maxCellX,
+            @Param("maxCellY") long maxCellY,
+            @Param("gridSize") double gridSize
     );
-}
\ No newline at end of file
+}
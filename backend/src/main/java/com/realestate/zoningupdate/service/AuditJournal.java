@@ -0,0 +1,478 @@
+package com.realestate.zoningupdate.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.realestate.zoningupdate.dto.AuditLogEntry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Append-only audit log stored as daily JSON Lines segment files.
+ *
+ * Each entry is written as one line to the segment for the day of its timestamp
+ * (audit-yyyy-MM-dd.jsonl in audit.log.dir). Retention is enforced by deleting whole
+ * segments older than audit.log.retention-days, and time-ranged reads only open the
+ * segments covering the range, memory-mapping them where possible.
+ *
+ * Concurrent appends are group committed: each writer queues its lines and whichever
+ * writer holds the commit lock writes every queued line with a single write and fsync
+ * per segment, so writers arriving during an fsync share the next one.
+ */
+@Component
+@Slf4j
+public class AuditJournal {
+
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final String SEGMENT_SUFFIX = ".jsonl";
+
+    @Value("${audit.log.dir:logs/audit}")
+    private String auditLogDir;
+
+    @Value("${audit.log.file:logs/audit-logs.json}")
+    private String legacyLogFilePath;
+
+    @Value("${audit.log.retention-days:30}")
+    private int retentionDays;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Queue<PendingWrite> pending = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock commitLock = new ReentrantLock();
+
+    private Path directory;
+
+    // Segment currently open for appending, only used while holding commitLock
+    private LocalDate currentDay;
+    private FileChannel currentChannel;
+
+    private record PendingWrite(LocalDate day, byte[] lines, CompletableFuture<Void> written) {
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        // Configure ObjectMapper for consistent serialization
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+
+        directory = Paths.get(auditLogDir);
+        Files.createDirectories(directory);
+        importLegacyFiles();
+        deleteExpiredSegments();
+        log.info("Writing audit log segments to {}", directory.toAbsolutePath());
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        commitLock.lock();
+        try {
+            commitPending();
+            if (currentChannel != null) {
+                currentChannel.close();
+                currentChannel = null;
+                currentDay = null;
+            }
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    /**
+     * Append a batch of entries and wait until they are durably written.
+     * Every entry must have a timestamp, which selects its segment.
+     *
+     * @param entries Entries to append, in order
+     * @throws IOException if the entries could not be written
+     */
+    public void appendAll(List<AuditLogEntry> entries) throws IOException {
+        // Entries rarely span midnight, so this is usually a single write
+        Map<LocalDate, ByteArrayOutputStream> linesByDay = new LinkedHashMap<>();
+        for (AuditLogEntry entry : entries) {
+            linesByDay.computeIfAbsent(entry.getTimestamp().toLocalDate(), day -> new ByteArrayOutputStream())
+                    .write(toLine(entry));
+        }
+
+        List<PendingWrite> writes = new ArrayList<>();
+        linesByDay.forEach((day, lines) ->
+                writes.add(new PendingWrite(day, lines.toByteArray(), new CompletableFuture<>())));
+        commit(writes);
+    }
+
+    /**
+     * Position of an entry: its segment day and line number within the segment.
+     * Segments are append-only, so a position never moves.
+     */
+    public record Position(LocalDate day, int line) {
+    }
+
+    public record PositionedEntry(Position position, AuditLogEntry entry) {
+    }
+
+    /**
+     * Read the newest entries within the retention period, touching only as many
+     * segments as needed.
+     *
+     * @param limit Maximum number of entries to return
+     * @return Up to limit entries, oldest first
+     * @throws UncheckedIOException if a segment cannot be read
+     */
+    public List<AuditLogEntry> readRecent(int limit) {
+        List<AuditLogEntry> entries = new ArrayList<>();
+        for (PositionedEntry row : readNewestFirst(null, null, null, entry -> true, limit)) {
+            entries.add(row.entry());
+        }
+        Collections.reverse(entries);
+        return entries;
+    }
+
+    /**
+     * Read matching entries newest first, starting just before a position. Segments
+     * are visited from the newest day backwards and lines are parsed from the end of
+     * each segment, so reading stops as soon as limit entries have matched.
+     *
+     * @param from Inclusive lower bound on the timestamp, or null for the start of the retention period
+     * @param to Exclusive upper bound on the timestamp, or null for no upper bound
+     * @param before Only return entries before this position, or null to start at the newest entry
+     * @param filter Additional condition entries must match
+     * @param limit Maximum number of entries to return
+     * @return Matching entries with their positions, newest first
+     * @throws UncheckedIOException if a segment cannot be read
+     */
+    public List<PositionedEntry> readNewestFirst(LocalDateTime from, LocalDateTime to, Position before,
+                                                 Predicate<AuditLogEntry> filter, int limit) {
+        LocalDateTime start = from != null && from.isAfter(retentionCutoff()) ? from : retentionCutoff();
+        LocalDate lastDay = to != null ? to.toLocalDate() : null;
+        if (before != null && (lastDay == null || before.day().isBefore(lastDay))) {
+            lastDay = before.day();
+        }
+
+        List<PositionedEntry> result = new ArrayList<>();
+        for (Map.Entry<LocalDate, Path> segment : segmentsBetween(start.toLocalDate(), lastDay).descendingMap().entrySet()) {
+            MappedSegment lines = mapSegment(segment.getValue());
+            int line = before != null && before.day().equals(segment.getKey())
+                    ? Math.min(before.line(), lines.lineCount()) - 1
+                    : lines.lineCount() - 1;
+
+            for (; line >= 0 && result.size() < limit; line--) {
+                AuditLogEntry entry = lines.entry(line);
+                if (entry != null
+                        && !entry.getTimestamp().isBefore(start)
+                        && (to == null || entry.getTimestamp().isBefore(to))
+                        && filter.test(entry)) {
+                    result.add(new PositionedEntry(new Position(segment.getKey(), line), entry));
+                }
+            }
+            if (result.size() >= limit) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Delete every segment older than the retention period
+     */
+    @Scheduled(cron = "${audit.log.retention-cron:0 5 0 * * *}")
+    public void deleteExpiredSegments() {
+        LocalDate oldestKept = retentionCutoff().toLocalDate();
+        for (Map.Entry<LocalDate, Path> segment : segmentsBetween(null, null).entrySet()) {
+            if (segment.getKey().isBefore(oldestKept)) {
+                try {
+                    Files.deleteIfExists(segment.getValue());
+                    log.info("Deleted expired audit segment {}", segment.getValue().getFileName());
+                } catch (IOException e) {
+                    log.error("Failed to delete expired audit segment {}", segment.getValue(), e);
+                }
+            }
+        }
+    }
+
+    private void commit(List<PendingWrite> writes) throws IOException {
+        pending.addAll(writes);
+
+        commitLock.lock();
+        try {
+            // A previous lock holder may already have committed these writes with its batch
+            if (writes.stream().anyMatch(write -> !write.written().isDone())) {
+                commitPending();
+            }
+        } finally {
+            commitLock.unlock();
+        }
+
+        try {
+            writes.forEach(write -> write.written().join());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw new IOException("Failed to write audit entries", e.getCause());
+        }
+    }
+
+    private void commitPending() {
+        Map<LocalDate, List<PendingWrite>> batches = new TreeMap<>();
+        PendingWrite next;
+        while ((next = pending.poll()) != null) {
+            batches.computeIfAbsent(next.day(), day -> new ArrayList<>()).add(next);
+        }
+
+        Error error = null;
+        for (Map.Entry<LocalDate, List<PendingWrite>> entry : batches.entrySet()) {
+            LocalDate day = entry.getKey();
+            List<PendingWrite> batch = entry.getValue();
+            ByteBuffer[] buffers = new ByteBuffer[batch.size()];
+            long remaining = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                buffers[i] = ByteBuffer.wrap(batch.get(i).lines());
+                remaining += buffers[i].remaining();
+            }
+
+            try {
+                FileChannel channel = channelFor(day);
+                try {
+                    while (remaining > 0) {
+                        remaining -= channel.write(buffers);
+                    }
+                    channel.force(false);
+                } finally {
+                    if (channel != currentChannel) {
+                        channel.close();
+                    }
+                }
+                batch.forEach(write -> write.written().complete(null));
+                log.debug("Committed {} audit writes to segment {}", batch.size(), day);
+            } catch (Throwable e) {
+                log.error("Failed to write {} audit writes to segment {}: {}", batch.size(), day, e.getMessage(), e);
+                // The channel may be unusable, so the next batch reopens the segment
+                closeCurrentChannel();
+                batch.forEach(write -> write.written().completeExceptionally(e));
+                if (e instanceof Error failure && error == null) {
+                    error = failure;
+                }
+            }
+        }
+
+        // Every writer has been released, so an Error can now propagate to the lock holder
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    private void closeCurrentChannel() {
+        if (currentChannel != null) {
+            try {
+                currentChannel.close();
+            } catch (IOException e) {
+                log.warn("Failed to close audit segment {}: {}", currentDay, e.getMessage());
+            }
+        }
+        currentChannel = null;
+        currentDay = null;
+    }
+
+    private FileChannel channelFor(LocalDate day) throws IOException {
+        if (day.equals(currentDay)) {
+            return currentChannel;
+        }
+        FileChannel channel = FileChannel.open(segmentPath(day),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        if (currentDay != null && day.isBefore(currentDay)) {
+            // Late entry for a previous day, the caller closes this channel after writing
+            return channel;
+        }
+        closeCurrentChannel();
+        currentDay = day;
+        currentChannel = channel;
+        return channel;
+    }
+
+    /**
+     * Read-only view of a segment's complete lines. Lines are located with a byte scan
+     * and only parsed when requested.
+     */
+    private final class MappedSegment {
+        private final MappedByteBuffer buffer;
+        private final int[] lineEnds;
+        private final int lineCount;
+
+        private MappedSegment(MappedByteBuffer buffer, int[] lineEnds, int lineCount) {
+            this.buffer = buffer;
+            this.lineEnds = lineEnds;
+            this.lineCount = lineCount;
+        }
+
+        private int lineCount() {
+            return lineCount;
+        }
+
+        /**
+         * Parse a line, or return null if it is not a valid entry
+         */
+        private AuditLogEntry entry(int line) {
+            int start = line == 0 ? 0 : lineEnds[line - 1] + 1;
+            int length = lineEnds[line] - start;
+            byte[] bytes = new byte[length];
+            buffer.get(start, bytes, 0, length);
+            return parseLine(bytes, length);
+        }
+    }
+
+    private MappedSegment mapSegment(Path segment) {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Audit segment is too large to map: " + size + " bytes");
+            }
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            // Only complete lines count, a line still being appended is left for the next read
+            int[] lineEnds = new int[64];
+            int lineCount = 0;
+            for (int i = 0; i < size; i++) {
+                if (buffer.get(i) == '\n') {
+                    if (lineCount == lineEnds.length) {
+                        lineEnds = Arrays.copyOf(lineEnds, lineCount * 2);
+                    }
+                    lineEnds[lineCount++] = i;
+                }
+            }
+            return new MappedSegment(buffer, lineEnds, lineCount);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read audit segment " + segment, e);
+        }
+    }
+
+    /**
+     * Find segment files by day, limited to [fromDay, toDay] when bounds are given
+     */
+    private TreeMap<LocalDate, Path> segmentsBetween(LocalDate fromDay, LocalDate toDay) {
+        TreeMap<LocalDate, Path> segments = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    LocalDate day = LocalDate.parse(
+                            name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+                    if ((fromDay == null || !day.isBefore(fromDay)) && (toDay == null || !day.isAfter(toDay))) {
+                        segments.put(day, file);
+                    }
+                } catch (DateTimeParseException e) {
+                    log.warn("Ignoring unexpected file in audit log directory: {}", name);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list audit segments in " + directory, e);
+        }
+        return segments;
+    }
+
+    private Path segmentPath(LocalDate day) {
+        return directory.resolve(SEGMENT_PREFIX + day + SEGMENT_SUFFIX);
+    }
+
+    private LocalDateTime retentionCutoff() {
+        return LocalDateTime.now().minusDays(retentionDays);
+    }
+
+    private byte[] toLine(AuditLogEntry entry) throws IOException {
+        // Newlines inside values are escaped by Jackson, so every entry stays on one line
+        byte[] json = objectMapper.writeValueAsBytes(entry);
+        byte[] line = new byte[json.length + 1];
+        System.arraycopy(json, 0, line, 0, json.length);
+        line[json.length] = '\n';
+        return line;
+    }
+
+    private AuditLogEntry parseLine(byte[] bytes, int length) {
+        if (length == 0) {
+            return null;
+        }
+        try {
+            AuditLogEntry entry = objectMapper.readValue(bytes, 0, length, AuditLogEntry.class);
+            return entry.getTimestamp() != null ? entry : null;
+        } catch (IOException e) {
+            log.warn("Skipping unreadable audit log line: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Import the single-file logs of earlier versions: the configured file, which held a
+     * JSON array, and the JSON Lines file of the same name with a .jsonl extension
+     */
+    private void importLegacyFiles() throws IOException {
+        importLegacyFile(Paths.get(legacyLogFilePath));
+        if (legacyLogFilePath.endsWith(".json")) {
+            importLegacyFile(Paths.get(legacyLogFilePath + "l"));
+        }
+    }
+
+    /**
+     * Move entries from a single-file log (a JSON array or JSON Lines) into daily
+     * segments, then rename the old file so it is imported once
+     */
+    private void importLegacyFile(Path legacy) throws IOException {
+        if (!Files.exists(legacy) || Files.isDirectory(legacy)) {
+            return;
+        }
+
+        List<AuditLogEntry> entries = new ArrayList<>();
+        String content = Files.readString(legacy, StandardCharsets.UTF_8).trim();
+        if (content.startsWith("[")) {
+            entries.addAll(objectMapper.readValue(content,
+                    objectMapper.getTypeFactory().constructCollectionType(List.class, AuditLogEntry.class)));
+        } else {
+            for (String line : content.split("\n")) {
+                byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+                AuditLogEntry entry = parseLine(bytes, bytes.length);
+                if (entry != null) {
+                    entries.add(entry);
+                }
+            }
+        }
+        entries.removeIf(entry -> entry.getTimestamp() == null);
+
+        if (!entries.isEmpty()) {
+            appendAll(entries);
+        }
+        Path imported = Paths.get(legacy + ".imported." + System.currentTimeMillis());
+        Files.move(legacy, imported);
+        log.info("Imported {} audit entries from {} into segments, renamed it to {}",
+                entries.size(), legacy, imported.getFileName());
+    }
+}
@@ -0,0 +1,174 @@
+package com.realestate.zoningupdate.service;
+
+import com.realestate.zoningupdate.dto.AuditLogEntry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory copy of the recent audit log with secondary indexes.
+ *
+ * Entries are kept in append order, which matches timestamp order up to the audit
+ * writer's batching delay, so the retention cutoff is found by binary search.
+ * Username and action indexes hold the positions of matching entries. The store
+ * holds the newest audit.log.max-entries entries and never returns entries older
+ * than audit.log.retention-days; older history stays in the journal's segment files.
+ */
+@Component
+@Slf4j
+public class AuditLogStore {
+
+    @Value("${audit.log.max-entries:1000}")
+    private int maxEntries;
+
+    @Value("${audit.log.retention-days:30}")
+    private int retentionDays;
+
+    private final ReadWriteLock rwLock = new ReentrantReadWriteLock();
+
+    private List<AuditLogEntry> entries = new ArrayList<>();
+    private Map<String, List<Integer>> byUsername = new HashMap<>();
+    private Map<String, List<Integer>> byAction = new HashMap<>();
+
+    /**
+     * Maximum number of entries held in memory
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Replace the contents of the store, e.g. with the entries read from disk at startup
+     *
+     * @param loaded Entries in append order
+     */
+    public void load(Collection<AuditLogEntry> loaded) {
+        rwLock.writeLock().lock();
+        try {
+            entries = new ArrayList<>();
+            byUsername = new HashMap<>();
+            byAction = new HashMap<>();
+            // Entries without a timestamp cannot be placed in time and were always pruned
+            loaded.stream()
+                    .filter(entry -> entry.getTimestamp() != null)
+                    .sorted(Comparator.comparing(AuditLogEntry::getTimestamp))
+                    .forEach(this::addEntry);
+            compact();
+            log.info("Loaded {} audit entries into memory", entries.size());
+        } finally {
+            rwLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add a batch of newly written entries. The entries must have timestamps.
+     */
+    public void addAll(List<AuditLogEntry> batch) {
+        rwLock.writeLock().lock();
+        try {
+            batch.forEach(this::addEntry);
+            // Drop old entries in batches so eviction stays cheap per append
+            if (entries.size() > maxEntries + Math.max(maxEntries / 4, 1)) {
+                compact();
+            }
+        } finally {
+            rwLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get the retained entries for a username, oldest first
+     */
+    public List<AuditLogEntry> findByUsername(String username) {
+        rwLock.readLock().lock();
+        try {
+            return resolve(byUsername.get(username));
+        } finally {
+            rwLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the retained entries for an action, oldest first
+     */
+    public List<AuditLogEntry> findByAction(String action) {
+        rwLock.readLock().lock();
+        try {
+            return resolve(byAction.get(action));
+        } finally {
+            rwLock.readLock().unlock();
+        }
+    }
+
+    private void addEntry(AuditLogEntry entry) {
+        int position = entries.size();
+        entries.add(entry);
+        if (entry.getUsername() != null) {
+            byUsername.computeIfAbsent(entry.getUsername(), key -> new ArrayList<>()).add(position);
+        }
+        if (entry.getAction() != null) {
+            byAction.computeIfAbsent(entry.getAction(), key -> new ArrayList<>()).add(position);
+        }
+    }
+
+    private List<AuditLogEntry> resolve(List<Integer> positions) {
+        List<AuditLogEntry> result = new ArrayList<>();
+        if (positions == null) {
+            return result;
+        }
+        int start = firstVisible();
+        for (int position : positions) {
+            if (position >= start) {
+                result.add(entries.get(position));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Keep the newest entries within the retention period and rebuild the indexes
+     */
+    private void compact() {
+        int start = firstVisible();
+        if (start <= 0) {
+            return;
+        }
+        List<AuditLogEntry> kept = new ArrayList<>(entries.subList(start, entries.size()));
+        entries = new ArrayList<>(kept.size());
+        byUsername = new HashMap<>();
+        byAction = new HashMap<>();
+        kept.forEach(this::addEntry);
+        log.debug("Evicted {} audit entries from memory", start);
+    }
+
+    private int firstVisible() {
+        // Evicted lazily, so skip entries past the retention period or the size limit
+        int firstRetained = firstAtOrAfter(LocalDateTime.now().minusDays(retentionDays));
+        return Math.max(firstRetained, entries.size() - maxEntries);
+    }
+
+    private int firstAtOrAfter(LocalDateTime time) {
+        int low = 0;
+        int high = entries.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            LocalDateTime timestamp = entries.get(mid).getTimestamp();
+            if (timestamp.isBefore(time)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
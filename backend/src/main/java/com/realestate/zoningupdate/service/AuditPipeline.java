@@ -0,0 +1,204 @@
+package com.realestate.zoningupdate.service;
+
+import com.realestate.zoningupdate.dto.AuditLogEntry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Moves audit writes off the request thread.
+ *
+ * Callers put entries on a lock-free queue and return immediately. A dedicated writer
+ * thread drains the queue in batches, appends each batch to the journal with a single
+ * write and fsync, and then adds it to the in-memory store. The queue is bounded by
+ * audit.pipeline.capacity; when it is full, audit.pipeline.overflow-policy decides whether
+ * callers wait (BLOCK), the entry is discarded (DROP) or the caller writes the entry to
+ * the journal itself (SPILL). A batch that fails to write is retried once and then
+ * counted as lost. Queued entries are flushed before shutdown.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AuditPipeline {
+
+    public enum OverflowPolicy {
+        BLOCK,
+        DROP,
+        SPILL
+    }
+
+    // Upper bound on how long the writer sleeps when nothing wakes it up
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final AuditJournal auditJournal;
+    private final AuditLogStore auditLogStore;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${audit.pipeline.capacity:10000}")
+    private int capacity;
+
+    @Value("${audit.pipeline.batch-size:256}")
+    private int batchSize;
+
+    @Value("${audit.pipeline.overflow-policy:BLOCK}")
+    private OverflowPolicy overflowPolicy;
+
+    @Value("${audit.pipeline.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    private final Queue<AuditLogEntry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong lost = new AtomicLong();
+
+    // One permit per free queue slot, so the lock-free queue stays bounded
+    private Semaphore freeSlots;
+    private Thread writer;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        freeSlots = new Semaphore(capacity);
+        running = true;
+        writer = new Thread(this::drainLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+
+        meterRegistry.gauge("zoning.audit.queue.size", this,
+                pipeline -> pipeline.capacity - pipeline.freeSlots.availablePermits());
+        FunctionCounter.builder("zoning.audit.dropped", dropped, AtomicLong::get)
+                .description("Audit entries dropped because the queue was full")
+                .register(meterRegistry);
+        FunctionCounter.builder("zoning.audit.lost", lost, AtomicLong::get)
+                .description("Audit entries lost because their batch could not be written")
+                .register(meterRegistry);
+        log.info("Started audit pipeline (capacity {}, batch size {}, overflow policy {})",
+                capacity, batchSize, overflowPolicy);
+    }
+
+    /**
+     * Flush every queued entry before the journal is closed
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(shutdownTimeoutMs);
+
+        if (writer.isAlive()) {
+            // Draining here as well would write entries concurrently and out of order
+            log.warn("Audit writer did not finish within {} ms, leaving {} queued entries to it",
+                    shutdownTimeoutMs, queue.size());
+            return;
+        }
+        // The writer has exited, so only entries submitted after its last poll remain
+        List<AuditLogEntry> batch = new ArrayList<>();
+        AuditLogEntry entry;
+        while ((entry = queue.poll()) != null) {
+            batch.add(entry);
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+        if (dropped.get() > 0) {
+            log.warn("Audit pipeline dropped {} entries because the queue was full", dropped.get());
+        }
+        if (lost.get() > 0) {
+            log.warn("Audit pipeline lost {} entries because they could not be written", lost.get());
+        }
+    }
+
+    /**
+     * Queue an entry for writing. Returns without waiting for disk I/O unless the
+     * queue is full and the overflow policy is BLOCK or SPILL.
+     *
+     * @param entry Entry to write
+     */
+    public void submit(AuditLogEntry entry) {
+        if (!freeSlots.tryAcquire()) {
+            switch (overflowPolicy) {
+                case BLOCK -> freeSlots.acquireUninterruptibly();
+                case DROP -> {
+                    long count = dropped.incrementAndGet();
+                    if (count == 1 || count % 1000 == 0) {
+                        log.warn("Audit queue is full, dropped {} entries so far", count);
+                    }
+                    return;
+                }
+                case SPILL -> {
+                    // Bypass the queue and pay for the write on this thread
+                    writeBatch(List.of(entry));
+                    return;
+                }
+            }
+        }
+
+        queue.add(entry);
+        LockSupport.unpark(writer);
+    }
+
+    private void drainLoop() {
+        List<AuditLogEntry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            AuditLogEntry entry;
+            while (batch.size() < batchSize && (entry = queue.poll()) != null) {
+                batch.add(entry);
+            }
+
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+
+            writeBatch(batch);
+            freeSlots.release(batch.size());
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<AuditLogEntry> batch) {
+        if (!appendWithRetry(batch)) {
+            lost.addAndGet(batch.size());
+            return;
+        }
+        try {
+            auditLogStore.addAll(batch);
+        } catch (Exception e) {
+            // Already durable, the entries reappear in the store when it is next loaded
+            log.error("Failed to add {} audit entries to the store: {}", batch.size(), e.getMessage(), e);
+        }
+    }
+
+    private boolean appendWithRetry(List<AuditLogEntry> batch) {
+        // The journal reopens its segment after a failed write, so a single retry gets
+        // past a transient failure without stalling the queue behind a broken disk
+        for (int attempt = 1; attempt <= 2; attempt++) {
+            try {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                auditJournal.appendAll(batch);
+                sample.stop(meterRegistry.timer("zoning.audit.write"));
+                meterRegistry.summary("zoning.audit.batch.size").record(batch.size());
+                log.debug("Wrote batch of {} audit entries", batch.size());
+                return true;
+            } catch (Exception e) {
+                log.error("Failed to write {} audit entries (attempt {}): {}",
+                        batch.size(), attempt, e.getMessage(), e);
+            }
+        }
+        return false;
+    }
+}
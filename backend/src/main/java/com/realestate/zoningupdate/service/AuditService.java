@@ -1,96 +1,53 @@
 package com.realestate.zoningupdate.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.realestate.zoningupdate.dto.AuditLogEntry;
+import com.realestate.zoningupdate.dto.AuditLogQuery;
+import com.realestate.zoningupdate.dto.CursorPage;
 import com.realestate.zoningupdate.exception.BusinessException;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
 
 @Service
 public class AuditService {
 
     private static final Logger log = LoggerFactory.getLogger(AuditService.class);
 
-    @Value("${audit.log.file:logs/audit-logs.json}")
-    private String auditLogFilePath;
-
-    @Value("${audit.log.max-entries:1000}")
-    private int maxLogEntries;
+    @Value("${audit.query.default-limit:100}")
+    private int defaultLimit;
 
-    @Value("${audit.log.retention-days:30}")
-    private int retentionDays;
+    @Value("${audit.query.max-limit:1000}")
+    private int maxLimit;
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AuditJournal auditJournal;
+    private final AuditLogStore auditLogStore;
+    private final AuditPipeline auditPipeline;
 
-    // Add a lock to handle concurrent access to the audit log file
-    private final ReadWriteLock rwLock = new ReentrantReadWriteLock();
+    public AuditService(AuditJournal auditJournal, AuditLogStore auditLogStore, AuditPipeline auditPipeline) {
+        this.auditJournal = auditJournal;
+        this.auditLogStore = auditLogStore;
+        this.auditPipeline = auditPipeline;
+    }
 
     @PostConstruct
     public void init() {
-        // Configure ObjectMapper for consistent serialization
-        objectMapper.registerModule(new JavaTimeModule());
-        objectMapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
-
-        // Ensure the audit log file exists
+        // Rebuild the in-memory store from the newest segments once, queries never read them afterwards
         try {
-            Path path = Paths.get(auditLogFilePath);
-            File file = path.toFile();
-
-            // Create parent directories if they don't exist
-            if (!file.getParentFile().exists()) {
-                boolean created = file.getParentFile().mkdirs();
-                if (!created) {
-                    log.warn("Failed to create directory for audit logs: {}", file.getParentFile().getAbsolutePath());
-                }
-            }
-
-            if (!file.exists()) {
-                try {
-                    Files.createFile(path);
-                    // Initialize with empty array
-                    objectMapper.writeValue(file, new ArrayList<>());
-                    log.info("Created new audit log file at {}", file.getAbsolutePath());
-                } catch (IOException e) {
-                    log.error("Failed to create or initialize audit log file: {}", e.getMessage(), e);
-                }
-            } else {
-                // Validate file is proper JSON
-                try {
-                    objectMapper.readValue(file,
-                            objectMapper.getTypeFactory().constructCollectionType(List.class, AuditLogEntry.class));
-                    log.info("Validated existing audit log file at {}", file.getAbsolutePath());
-                } catch (IOException e) {
-                    log.error("Existing audit log file is corrupted. Creating backup and initializing new file.", e);
-                    // Backup corrupted file
-                    Path backupPath = Paths.get(auditLogFilePath + ".backup." + System.currentTimeMillis());
-                    try {
-                        Files.copy(path, backupPath);
-                        log.info("Created backup of corrupted file at {}", backupPath);
-                        // Initialize with empty array
-                        objectMapper.writeValue(file, new ArrayList<>());
-                    } catch (IOException backupError) {
-                        log.error("Failed to create backup of corrupted audit log file", backupError);
-                    }
-                }
-            }
+            auditLogStore.load(auditJournal.readRecent(auditLogStore.getMaxEntries()));
         } catch (Exception e) {
-            log.error("Failed to initialize audit log file: {}", e.getMessage(), e);
+            log.error("Failed to load audit logs into memory: {}", e.getMessage(), e);
         }
     }
 
@@ -108,125 +65,91 @@ public class AuditService {
             logEntry.setDetails(details != null ? details : "No details provided");
             logEntry.setUsername(username != null ? username : "system");
 
-            rwLock.writeLock().lock();
-            try {
-                List<AuditLogEntry> existingLogs = readExistingLogs();
-                existingLogs.add(logEntry);
-
-                // Enforce max entries limit
-                if (existingLogs.size() > maxLogEntries) {
-                    existingLogs = existingLogs.subList(
-                            existingLogs.size() - maxLogEntries,
-                            existingLogs.size()
-                    );
-                }
-
-                File file = new File(auditLogFilePath);
-                objectMapper.writeValue(file, existingLogs);
-
-                log.info("Audit log entry created: {}", logEntry);
-            } catch (IOException e) {
-                log.error("Failed to write to audit log file: {}", e.getMessage(), e);
-            } finally {
-                rwLock.writeLock().unlock();
-            }
+            // Written by the audit writer thread, the caller never waits for disk I/O
+            auditPipeline.submit(logEntry);
+            log.info("Audit log entry queued: {}", logEntry);
         } catch (Exception e) {
             log.error("Unexpected error during audit logging: {}", e.getMessage(), e);
         }
     }
 
     /**
-     * Prune logs older than the retention period
+     * Get a page of audit logs, newest first.
+     * Only the segments and lines needed to fill the page are read.
      *
-     * @param logs List of audit log entries to be pruned
+     * @param query Optional time range, user and action filters, page size and cursor
+     * @return Page of audit log entries with the cursor for the next page
+     * @throws BusinessException if the query or cursor is invalid
      */
-    private void pruneOldLogs(List<AuditLogEntry> logs) {
-        if (logs == null || logs.isEmpty()) {
-            return;
+    @Timed(value = "zoning.audit.query", description = "Time to read a page of audit logs")
+    public CursorPage<AuditLogEntry> queryAuditLogs(AuditLogQuery query) {
+        int limit = resolveLimit(query.getLimit());
+        if (query.getFrom() != null && query.getTo() != null && !query.getFrom().isBefore(query.getTo())) {
+            throw new BusinessException("'from' must be before 'to'");
         }
+        AuditJournal.Position before = decodeCursor(query.getCursor());
 
-        try {
-            // Calculate the cutoff date based on retention days
-            LocalDateTime retentionCutoff = LocalDateTime.now().minusDays(retentionDays);
-
-            // Track how many logs will be removed
-            int initialSize = logs.size();
+        Predicate<AuditLogEntry> filter = entry ->
+                (query.getUser() == null || query.getUser().equals(entry.getUsername()))
+                        && (query.getAction() == null || query.getAction().equals(entry.getAction()));
 
-            // Remove logs older than the cutoff date
-            logs.removeIf(log -> {
-                // Handle potential null timestamp
-                if (log.getTimestamp() == null) {
-                    return true; // Remove entries with null timestamps
-                }
-
-                // Remove if timestamp is before the cutoff date
-                return log.getTimestamp().isBefore(retentionCutoff);
-            });
-
-            int removedCount = initialSize - logs.size();
-            if (removedCount > 0) {
-                log.info("Pruned {} old audit logs based on {} day retention policy",
-                        removedCount, retentionDays);
+        try {
+            // Read one extra entry to find out whether another page follows
+            List<AuditJournal.PositionedEntry> rows = auditJournal.readNewestFirst(
+                    query.getFrom(), query.getTo(), before, filter, limit + 1);
+
+            String nextCursor = null;
+            if (rows.size() > limit) {
+                rows = rows.subList(0, limit);
+                nextCursor = encodeCursor(rows.get(limit - 1).position());
             }
+
+            List<AuditLogEntry> logs = rows.stream().map(AuditJournal.PositionedEntry::entry).toList();
+            log.info("Retrieved page of {} audit logs", logs.size());
+            return new CursorPage<>(logs, nextCursor);
         } catch (Exception e) {
-            // Log the error but don't interrupt the logging process
-            log.error("Error pruning old audit logs: {}", e.getMessage(), e);
+            log.error("Error retrieving audit logs", e);
+            throw new BusinessException("Unable to retrieve audit logs", e);
         }
     }
 
-    private List<AuditLogEntry> readExistingLogs() {
-        rwLock.readLock().lock();
-        try {
-            File file = new File(auditLogFilePath);
-            if (!file.exists() || file.length() == 0) {
-                log.info("Audit log file is empty or doesn't exist, returning empty list");
-                return new ArrayList<>();
-            }
-
-            try {
-                // Read logs
-                List<AuditLogEntry> logs = objectMapper.readValue(file,
-                        objectMapper.getTypeFactory().constructCollectionType(List.class, AuditLogEntry.class));
-
-                // Prune old logs
-                pruneOldLogs(logs);
-
-                return logs;
-            } catch (IOException e) {
-                log.error("Failed to read existing audit logs: {}", e.getMessage(), e);
-
-                // Attempt recovery by initializing with empty array
-                try {
-                    log.info("Attempting recovery by initializing audit log file with empty array");
-                    objectMapper.writeValue(file, new ArrayList<>());
-                } catch (IOException recoveryError) {
-                    log.error("Recovery attempt failed", recoveryError);
-                }
-
-                return new ArrayList<>();
-            }
-        } catch (Exception e) {
-            log.error("Unexpected error reading audit logs: {}", e.getMessage(), e);
-            return new ArrayList<>();
-        } finally {
-            rwLock.readLock().unlock();
+    private int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return defaultLimit;
         }
+        if (limit < 1) {
+            throw new BusinessException("Limit must be at least 1");
+        }
+        return Math.min(limit, maxLimit);
+    }
+
+    /**
+     * Encode the position of the last entry on a page as an opaque cursor
+     */
+    static String encodeCursor(AuditJournal.Position position) {
+        String value = position.day() + ":" + position.line();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
     }
 
     /**
-     * Retrieve all audit logs.
-     * This method can be used for administrative purposes to view the audit trail.
+     * Decode a cursor from encodeCursor, null (start at the newest entry) when absent
      *
-     * @return A list of all audit log entries
+     * @throws BusinessException if the cursor is malformed
      */
-    public List<AuditLogEntry> getAllAuditLogs() {
+    static AuditJournal.Position decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
         try {
-            List<AuditLogEntry> logs = readExistingLogs();
-            log.info("Retrieved {} audit logs", logs.size());
-            return logs;
-        } catch (Exception e) {
-            log.error("Error retrieving audit logs", e);
-            throw new BusinessException("Unable to retrieve audit logs", e);
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf(':');
+            int line = Integer.parseInt(value.substring(separator + 1));
+            if (line < 0) {
+                throw new BusinessException("Invalid page cursor");
+            }
+            return new AuditJournal.Position(LocalDate.parse(value.substring(0, separator)), line);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BusinessException("Invalid page cursor");
         }
     }
 
@@ -242,10 +165,7 @@ public class AuditService {
         }
 
         try {
-            List<AuditLogEntry> allLogs = readExistingLogs();
-            List<AuditLogEntry> filteredLogs = allLogs.stream()
-                    .filter(entry -> username.equals(entry.getUsername()))
-                    .toList();
+            List<AuditLogEntry> filteredLogs = auditLogStore.findByUsername(username);
 
             log.info("Retrieved {} audit logs for user {}", filteredLogs.size(), username);
             return filteredLogs;
@@ -267,10 +187,7 @@ public class AuditService {
         }
 
         try {
-            List<AuditLogEntry> allLogs = readExistingLogs();
-            List<AuditLogEntry> filteredLogs = allLogs.stream()
-                    .filter(entry -> action.equals(entry.getAction()))
-                    .toList();
+            List<AuditLogEntry> filteredLogs = auditLogStore.findByAction(action);
 
             log.info("Retrieved {} audit logs for action {}", filteredLogs.size(), action);
             return filteredLogs;
@@ -0,0 +1,213 @@
+package com.realestate.zoningupdate.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realestate.zoningupdate.config.CacheConfig;
+import com.realestate.zoningupdate.dto.ClusterDTO;
+import com.realestate.zoningupdate.event.ZoningUpdatedEvent;
+import com.realestate.zoningupdate.repository.ParcelRepository;
+import com.realestate.zoningupdate.util.TileMath;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.util.PGobject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Computes parcel clusters for fixed cluster tiles.
+ *
+ * At every zoom level the map is divided into a grid of cells (the clustering
+ * granularity) and the cells are grouped into square tiles of tile-cells x tile-cells.
+ * Tile addresses do not depend on the client viewport, so panning and different
+ * users' viewports reuse the same cached tiles. Zoning updates evict only the
+ * tiles containing the changed parcels, so cached tiles can live for a long time.
+ * A tile computed from a snapshot taken before an update committed is evicted again
+ * if it is stored after that update's eviction has run.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ClusterTileService {
+
+    private final ParcelRepository parcelRepository;
+    private final ObjectMapper objectMapper;
+    private final CacheManager cacheManager;
+
+    @Value("${app.map.clustering.tile-cells:16}")
+    private int tileCells;
+
+    // Incremented before every eviction, so tile computations can tell whether one overlapped them
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Get the size of a grid cell in degrees for a zoom level
+     */
+    public double gridSize(int zoom) {
+        return 0.001 * Math.pow(2, 16 - zoom);
+    }
+
+    /**
+     * Get the index of the cluster tile containing a longitude or latitude
+     *
+     * @param coordinate Longitude (for columns) or latitude (for rows)
+     * @param zoom Map zoom level
+     * @return Tile column or row
+     */
+    public long tileIndex(double coordinate, int zoom) {
+        long cell = (long) Math.floor(coordinate / gridSize(zoom));
+        return Math.floorDiv(cell, tileCells);
+    }
+
+    /**
+     * Get the clusters for one cluster tile.
+     * Each parcel is assigned to the tile containing its centroid, so adjacent
+     * tiles never report the same parcel twice.
+     *
+     * @param zoom Map zoom level
+     * @param tileX Tile column
+     * @param tileY Tile row
+     * @return Clusters with at least 10 parcels in the tile
+     */
+    @SuppressWarnings("unchecked")
+    public List<ClusterDTO> getClusterTile(int zoom, long tileX, long tileY) {
+        Cache cache = cacheManager.getCache(CacheConfig.CLUSTER_CACHE);
+        if (cache == null) {
+            return computeClusterTile(zoom, tileX, tileY);
+        }
+        List<Object> key = tileKey(zoom, tileX, tileY);
+        Cache.ValueWrapper cached = cache.get(key);
+        if (cached != null) {
+            return (List<ClusterDTO>) cached.get();
+        }
+
+        long generation = evictions.get();
+        List<ClusterDTO> clusters = computeClusterTile(zoom, tileX, tileY);
+        cache.put(key, clusters);
+        if (evictions.get() != generation) {
+            // An update committed while the tile was computed and its eviction may already
+            // have run, so the stored tile could predate it
+            cache.evict(key);
+        }
+        return clusters;
+    }
+
+    private List<ClusterDTO> computeClusterTile(int zoom, long tileX, long tileY) {
+        long minCellX = tileX * tileCells;
+        long minCellY = tileY * tileCells;
+        List<Object[]> results = parcelRepository.findClustersInCells(
+                minCellX, minCellY, minCellX + tileCells - 1, minCellY + tileCells - 1, gridSize(zoom));
+
+        List<ClusterDTO> clusters = toClusters(results);
+        log.debug("Computed {} clusters for cluster tile {}/{}/{}", clusters.size(), zoom, tileX, tileY);
+        return clusters;
+    }
+
+    /**
+     * Map rows returned by ParcelRepository.findClustersInCells to cluster DTOs,
+     * skipping malformed rows and clusters with fewer than 10 parcels
+     *
+     * @param results Rows of center, count, zoning breakdown (JSONB) and bounds
+     * @return The mapped clusters
+     */
+    public List<ClusterDTO> toClusters(List<Object[]> results) {
+        List<ClusterDTO> clusters = new ArrayList<>();
+        for (Object[] result : results) {
+            try {
+                // Skip null results
+                if (result == null || result.length < 4 || result[0] == null) {
+                    continue;
+                }
+
+                // Parse the cluster information from the query result
+                Double[] centerArray = (Double[]) result[0];
+                double[] center = Arrays.stream(centerArray).mapToDouble(Double::doubleValue).toArray();
+                int count = ((Number) result[1]).intValue();
+
+                // Skip clusters with less than 10 parcels (double check)
+                if (count < 10) {
+                    continue;
+                }
+
+                Map<String, Integer> zoningBreakdown = parseZoningBreakdown(result[2].toString());
+
+                Double[] boundsArray = (Double[]) result[3];
+                double[] bounds = Arrays.stream(boundsArray).mapToDouble(Double::doubleValue).toArray();
+
+                clusters.add(new ClusterDTO(center, count, zoningBreakdown, bounds));
+            } catch (Exception e) {
+                log.error("Error processing cluster row: {}", e.getMessage());
+                // Continue processing other rows
+            }
+        }
+
+        return clusters;
+    }
+
+    /**
+     * Evict the cluster tiles containing parcels whose zoning changed, at every zoom level
+     */
+    @TransactionalEventListener
+    public void onZoningUpdated(ZoningUpdatedEvent event) {
+        Cache cache = cacheManager.getCache(CacheConfig.CLUSTER_CACHE);
+        if (cache == null || event.getParcelIds().isEmpty()) {
+            return;
+        }
+
+        try {
+            // Tiles are assigned by centroid, the same way findClustersInCells groups parcels
+            Set<List<Object>> keys = new HashSet<>();
+            evictions.incrementAndGet();
+            for (Object[] centroid : parcelRepository.findCentroids(event.getParcelIds().toArray(new Integer[0]))) {
+                double x = ((Number) centroid[0]).doubleValue();
+                double y = ((Number) centroid[1]).doubleValue();
+                for (int zoom = 0; zoom <= TileMath.MAX_ZOOM; zoom++) {
+                    keys.add(tileKey(zoom, tileIndex(x, zoom), tileIndex(y, zoom)));
+                }
+            }
+            keys.forEach(cache::evict);
+            log.debug("Evicted {} cluster tiles for {} updated parcels", keys.size(), event.getParcelIds().size());
+        } catch (Exception e) {
+            // Fall back to dropping every tile rather than serving stale zoning counts
+            log.error("Failed to evict updated cluster tiles, clearing the cluster cache", e);
+            cache.clear();
+        }
+    }
+
+    private static List<Object> tileKey(int zoom, long tileX, long tileY) {
+        return List.of(zoom, tileX, tileY);
+    }
+
+    /**
+     * Helper method to parse zoning breakdown from PostgreSQL JSONB object
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Integer> parseZoningBreakdown(Object jsonbObj) {
+        try {
+            if (jsonbObj instanceof PGobject) {
+                PGobject pgObj = (PGobject) jsonbObj;
+                if ("jsonb".equals(pgObj.getType())) {
+                    return objectMapper.readValue(pgObj.getValue(), Map.class);
+                }
+            } else if (jsonbObj instanceof String) {
+                return objectMapper.readValue((String) jsonbObj, Map.class);
+            } else if (jsonbObj instanceof Map) {
+                return (Map<String, Integer>) jsonbObj;
+            }
+        } catch (JsonProcessingException e) {
+            log.error("Error parsing zoning breakdown from JSONB", e);
+        }
+        return new HashMap<>();
+    }
+}
@@ -0,0 +1,338 @@
+package com.realestate.zoningupdate.service;
+
+import com.realestate.zoningupdate.dto.ClusterDTO;
+import com.realestate.zoningupdate.event.ZoningUpdatedEvent;
+import com.realestate.zoningupdate.repository.ParcelRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.Stream;
+
+/**
+ * In-memory cluster pyramid over parcel centroids.
+ *
+ * For every zoom level between app.map.clustering.min-zoom and max-zoom the parcels are
+ * grouped into the same grid cells used by the database clustering query. The finest level
+ * is built from the parcel centroids and each coarser level is built by merging 2x2 child
+ * cells, so cluster requests in that zoom range are answered from memory.
+ * Zoning updates adjust the per-cell zoning counts in place after they commit.
+ * Disable with app.map.clustering.index.enabled=false.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ParcelClusterIndex {
+
+    // Same zoning categories as ParcelRepository.findClustersInCells
+    private static final String[] ZONING_TYPES = {"Residential", "Commercial", "Planned", "Unknown"};
+    private static final int UNKNOWN_ZONING = 3;
+
+    private static final int MIN_CLUSTER_SIZE = 10;
+
+    private final ParcelRepository parcelRepository;
+    private final ClusterTileService clusterTileService;
+
+    @Value("${app.map.clustering.index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.map.clustering.min-zoom:14}")
+    private int minZoom;
+
+    @Value("${app.map.clustering.max-zoom:17}")
+    private int maxZoom;
+
+    // levels.get(zoom - minZoom) maps a packed cell key to its cell
+    private volatile List<Map<Long, Cell>> levels;
+    private volatile Map<Integer, ClusterPoint> points;
+    private volatile boolean ready = false;
+
+    // Zoning updates that commit while the pyramid is being built, null when no build is running
+    private final Object loadLock = new Object();
+    private List<ZoningUpdatedEvent> pendingUpdates;
+
+    /**
+     * A parcel's cell at the finest level and its current zoning category
+     */
+    private static final class ClusterPoint {
+        private final int cellX;
+        private final int cellY;
+        private int zoning;
+
+        private ClusterPoint(int cellX, int cellY, int zoning) {
+            this.cellX = cellX;
+            this.cellY = cellY;
+            this.zoning = zoning;
+        }
+    }
+
+    /**
+     * Aggregate for one grid cell. Everything except the zoning counts is
+     * fixed once the pyramid has been built.
+     */
+    private static final class Cell {
+        private int count;
+        private double sumX;
+        private double sumY;
+        private double minX = Double.POSITIVE_INFINITY;
+        private double minY = Double.POSITIVE_INFINITY;
+        private double maxX = Double.NEGATIVE_INFINITY;
+        private double maxY = Double.NEGATIVE_INFINITY;
+        private final AtomicIntegerArray zoning = new AtomicIntegerArray(ZONING_TYPES.length);
+
+        private void addParcel(double x, double y, double[] extent, int zoningType) {
+            count++;
+            sumX += x;
+            sumY += y;
+            expand(extent[0], extent[1], extent[2], extent[3]);
+            zoning.incrementAndGet(zoningType);
+        }
+
+        private void merge(Cell child) {
+            count += child.count;
+            sumX += child.sumX;
+            sumY += child.sumY;
+            expand(child.minX, child.minY, child.maxX, child.maxY);
+            for (int i = 0; i < ZONING_TYPES.length; i++) {
+                zoning.addAndGet(i, child.zoning.get(i));
+            }
+        }
+
+        private void expand(double west, double south, double east, double north) {
+            minX = Math.min(minX, west);
+            minY = Math.min(minY, south);
+            maxX = Math.max(maxX, east);
+            maxY = Math.max(maxY, north);
+        }
+
+        private boolean intersects(double west, double south, double east, double north) {
+            return minX <= east && maxX >= west && minY <= north && maxY >= south;
+        }
+
+        private ClusterDTO toDTO() {
+            Map<String, Integer> zoningBreakdown = new LinkedHashMap<>();
+            for (int i = 0; i < ZONING_TYPES.length; i++) {
+                zoningBreakdown.put(ZONING_TYPES[i], zoning.get(i));
+            }
+            return new ClusterDTO(
+                    new double[]{sumX / count, sumY / count},
+                    count,
+                    zoningBreakdown,
+                    new double[]{minX, minY, maxX, maxY});
+        }
+    }
+
+    /**
+     * Whether the pyramid is loaded and holds the given zoom level
+     */
+    public boolean covers(int zoom) {
+        return enabled && ready && zoom >= minZoom && zoom <= maxZoom;
+    }
+
+    /**
+     * Build the cluster pyramid once the application has started
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        if (!enabled) {
+            log.info("Parcel cluster index is disabled");
+            return;
+        }
+        if (minZoom > maxZoom) {
+            log.warn("Parcel cluster index not built: min-zoom {} is above max-zoom {}", minZoom, maxZoom);
+            return;
+        }
+
+        synchronized (loadLock) {
+            pendingUpdates = new ArrayList<>();
+        }
+
+        long start = System.currentTimeMillis();
+        double gridSize = clusterTileService.gridSize(maxZoom);
+        Map<Integer, ClusterPoint> loadedPoints = new HashMap<>();
+        Map<Long, Cell> finest = new HashMap<>();
+
+        try (Stream<Object[]> rows = parcelRepository.streamClusterPoints()) {
+            rows.forEach(row -> {
+                double x = ((Number) row[1]).doubleValue();
+                double y = ((Number) row[2]).doubleValue();
+                double[] extent = {
+                        ((Number) row[3]).doubleValue(), ((Number) row[4]).doubleValue(),
+                        ((Number) row[5]).doubleValue(), ((Number) row[6]).doubleValue()};
+                int zoningType = zoningIndex((String) row[7]);
+
+                ClusterPoint point = new ClusterPoint(
+                        (int) Math.floor(x / gridSize), (int) Math.floor(y / gridSize), zoningType);
+                loadedPoints.put(((Number) row[0]).intValue(), point);
+                finest.computeIfAbsent(cellKey(point.cellX, point.cellY), key -> new Cell())
+                        .addParcel(x, y, extent, zoningType);
+            });
+        } catch (Exception e) {
+            log.error("Failed to build parcel cluster index, clusters will be computed by the database", e);
+            synchronized (loadLock) {
+                pendingUpdates = null;
+            }
+            return;
+        }
+
+        // Grid sizes double from one zoom level to the next, so each parent cell
+        // covers exactly the 2x2 child cells whose indexes shift down to it
+        List<Map<Long, Cell>> built = new ArrayList<>();
+        built.add(finest);
+        for (int zoom = maxZoom - 1; zoom >= minZoom; zoom--) {
+            Map<Long, Cell> parents = new HashMap<>();
+            for (Map.Entry<Long, Cell> child : built.get(0).entrySet()) {
+                long parentKey = cellKey(cellX(child.getKey()) >> 1, cellY(child.getKey()) >> 1);
+                parents.computeIfAbsent(parentKey, key -> new Cell()).merge(child.getValue());
+            }
+            built.add(0, parents);
+        }
+
+        int replayed;
+        synchronized (loadLock) {
+            points = loadedPoints;
+            levels = built;
+            // The stream may have read some rows before these updates committed
+            pendingUpdates.forEach(this::applyZoning);
+            replayed = pendingUpdates.size();
+            pendingUpdates = null;
+            ready = true;
+        }
+
+        log.info("Built parcel cluster index for {} parcels, zoom {}-{} in {} ms, replayed {} zoning updates made while building",
+                loadedPoints.size(), minZoom, maxZoom, System.currentTimeMillis() - start, replayed);
+    }
+
+    /**
+     * Find clusters of at least 10 parcels in the grid cells covering the bounds.
+     * Cluster centers are the mean of the parcel centroids in the cell.
+     *
+     * @param west Western longitude bound
+     * @param south Southern latitude bound
+     * @param east Eastern longitude bound
+     * @param north Northern latitude bound
+     * @param zoom Map zoom level, must be covered by the index
+     * @return Clusters overlapping the bounds
+     */
+    public List<ClusterDTO> findClusters(double west, double south, double east, double north, int zoom) {
+        Map<Long, Cell> level = levels.get(zoom - minZoom);
+        double gridSize = clusterTileService.gridSize(zoom);
+        long minCellX = (long) Math.floor(west / gridSize);
+        long maxCellX = (long) Math.floor(east / gridSize);
+        long minCellY = (long) Math.floor(south / gridSize);
+        long maxCellY = (long) Math.floor(north / gridSize);
+
+        List<ClusterDTO> clusters = new ArrayList<>();
+        long cellsInBounds = (maxCellX - minCellX + 1) * (maxCellY - minCellY + 1);
+        if (cellsInBounds <= level.size()) {
+            for (long x = minCellX; x <= maxCellX; x++) {
+                for (long y = minCellY; y <= maxCellY; y++) {
+                    addCluster(clusters, level.get(cellKey((int) x, (int) y)), west, south, east, north);
+                }
+            }
+        } else {
+            // Wide bounds: scanning the populated cells is cheaper than probing empty ones
+            for (Map.Entry<Long, Cell> entry : level.entrySet()) {
+                int x = cellX(entry.getKey());
+                int y = cellY(entry.getKey());
+                if (x >= minCellX && x <= maxCellX && y >= minCellY && y <= maxCellY) {
+                    addCluster(clusters, entry.getValue(), west, south, east, north);
+                }
+            }
+        }
+        return clusters;
+    }
+
+    private void addCluster(List<ClusterDTO> clusters, Cell cell,
+                            double west, double south, double east, double north) {
+        if (cell != null && cell.count >= MIN_CLUSTER_SIZE && cell.intersects(west, south, east, north)) {
+            clusters.add(cell.toDTO());
+        }
+    }
+
+    /**
+     * Move committed zoning changes between the zoning counts of every level
+     */
+    @TransactionalEventListener
+    public void onZoningUpdated(ZoningUpdatedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (loadLock) {
+            if (pendingUpdates != null) {
+                pendingUpdates.add(event);
+                return;
+            }
+        }
+        if (!ready) {
+            return;
+        }
+        applyZoning(event);
+    }
+
+    /**
+     * Move each parcel's count to the new zoning type in its cell at every level.
+     * Parcels already of that type are left alone, so replaying an update is harmless.
+     */
+    private void applyZoning(ZoningUpdatedEvent event) {
+        int newZoning = zoningIndex(event.getZoningType());
+        int moved = 0;
+        for (Integer id : event.getParcelIds()) {
+            ClusterPoint point = points.get(id);
+            if (point == null) {
+                continue;
+            }
+
+            int oldZoning;
+            synchronized (point) {
+                oldZoning = point.zoning;
+                point.zoning = newZoning;
+            }
+            if (oldZoning == newZoning) {
+                continue;
+            }
+
+            for (int zoom = maxZoom; zoom >= minZoom; zoom--) {
+                int shift = maxZoom - zoom;
+                Cell cell = levels.get(zoom - minZoom).get(cellKey(point.cellX >> shift, point.cellY >> shift));
+                cell.zoning.decrementAndGet(oldZoning);
+                cell.zoning.incrementAndGet(newZoning);
+            }
+            moved++;
+        }
+        log.debug("Applied zoning update for {} parcels to cluster index", moved);
+    }
+
+    private static int zoningIndex(String zoningType) {
+        for (int i = 0; i < UNKNOWN_ZONING; i++) {
+            if (ZONING_TYPES[i].equals(zoningType)) {
+                return i;
+            }
+        }
+        return UNKNOWN_ZONING;
+    }
+
+    private static long cellKey(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+    }
+
+    private static int cellX(long key) {
+        return (int) (key >> 32);
+    }
+
+    private static int cellY(long key) {
+        return (int) key;
+    }
+}
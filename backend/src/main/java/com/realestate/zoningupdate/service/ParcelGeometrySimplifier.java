@@ -0,0 +1,147 @@
+package com.realestate.zoningupdate.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.realestate.zoningupdate.dto.ParcelFeature;
+import com.realestate.zoningupdate.repository.ParcelRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.simplify.TopologyPreservingSimplifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.annotation.PostConstruct;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Provides zoom-dependent level-of-detail geometries for parcels.
+ *
+ * Polygons are simplified with a topology-preserving simplifier at a tolerance
+ * matched to the ground size of a screen pixel at the requested zoom, so vertex
+ * detail that cannot be seen is not sent to the client. Each simplified level is
+ * computed once per parcel and cached. The levels listed in
+ * app.map.simplification.precompute-zooms are computed for every parcel at startup,
+ * as far as the cache has room, so bounds requests at those zooms never simplify
+ * on the request thread.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ParcelGeometrySimplifier {
+
+    // Degrees of longitude covered by one 256px tile at zoom 0
+    private static final double DEGREES_PER_PIXEL_AT_ZOOM_0 = 360.0 / 256.0;
+
+    @Value("${app.map.simplification.max-zoom:18}")
+    private int maxZoom;
+
+    @Value("${app.map.simplification.pixel-tolerance:0.5}")
+    private double pixelTolerance;
+
+    @Value("${app.map.simplification.cache-size:200000}")
+    private long cacheSize;
+
+    @Value("${app.map.simplification.precompute-zooms:17}")
+    private int[] precomputeZooms;
+
+    private final ParcelRepository parcelRepository;
+    private final MeterRegistry meterRegistry;
+
+    private Cache<Long, Polygon> simplifiedCache;
+
+    @PostConstruct
+    public void init() {
+        simplifiedCache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, simplifiedCache, "simplifiedGeometryCache");
+    }
+
+    /**
+     * Compute the configured simplification levels for every parcel once the
+     * application has started. Stops early rather than evicting levels it has
+     * just computed when the cache is too small for all of them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void precompute() {
+        int[] zooms = Arrays.stream(precomputeZooms).filter(zoom -> zoom >= 0 && zoom < maxZoom).toArray();
+        if (zooms.length == 0) {
+            log.info("Geometry simplification levels are computed on demand");
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        long computed = 0;
+        try (Stream<ParcelFeature> stream = parcelRepository.streamFeatures()) {
+            Iterator<ParcelFeature> parcels = stream.iterator();
+            while (parcels.hasNext()) {
+                if (computed + zooms.length > cacheSize) {
+                    log.warn("Simplification cache (app.map.simplification.cache-size={}) is full, "
+                            + "remaining parcels are simplified on demand", cacheSize);
+                    break;
+                }
+                ParcelFeature parcel = parcels.next();
+                for (int zoom : zooms) {
+                    simplify(parcel, zoom);
+                }
+                computed += zooms.length;
+            }
+        } catch (Exception e) {
+            log.error("Failed to precompute simplified geometries, they will be computed on demand", e);
+            return;
+        }
+
+        log.info("Precomputed {} simplified geometries for zoom levels {} in {} ms",
+                computed, Arrays.toString(zooms), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Get the parcel geometry to render at the given zoom level.
+     * Returns the full-resolution polygon when no zoom is given or the zoom is at
+     * or above the configured maximum.
+     *
+     * @param parcel Parcel to simplify
+     * @param zoom   Map zoom level, or null for full resolution
+     * @return Simplified or original polygon
+     */
+    public Polygon simplify(ParcelFeature parcel, Integer zoom) {
+        Polygon geometry = parcel.getGeom();
+        if (geometry == null || zoom == null || zoom >= maxZoom || zoom < 0) {
+            return geometry;
+        }
+
+        if (parcel.getId() == null) {
+            return simplify(geometry, zoom);
+        }
+
+        // Parcel geometry is never modified by the application, so cached levels stay valid
+        long key = ((long) parcel.getId() << 5) | zoom;
+        return simplifiedCache.get(key, k -> simplify(geometry, zoom));
+    }
+
+    /**
+     * Get the simplification tolerance in degrees for a zoom level
+     */
+    public double toleranceForZoom(int zoom) {
+        return DEGREES_PER_PIXEL_AT_ZOOM_0 / (1L << zoom) * pixelTolerance;
+    }
+
+    private Polygon simplify(Polygon geometry, int zoom) {
+        Geometry simplified = TopologyPreservingSimplifier.simplify(geometry, toleranceForZoom(zoom));
+        if (simplified instanceof Polygon polygon && !polygon.isEmpty()) {
+            return polygon;
+        }
+        return geometry;
+    }
+}
@@ -1,31 +1,50 @@
 package com.realestate.zoningupdate.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realestate.zoningupdate.dto.BoundsStatisticsDTO;
 import com.realestate.zoningupdate.dto.ClusterDTO;
+import com.realestate.zoningupdate.dto.CursorPage;
 import com.realestate.zoningupdate.dto.ParcelDTO;
+import com.realestate.zoningupdate.dto.ParcelFeature;
+import com.realestate.zoningupdate.dto.ParcelPageRequest;
+import com.realestate.zoningupdate.dto.ZoningAreaUpdateRequest;
+import com.realestate.zoningupdate.dto.ZoningChange;
 import com.realestate.zoningupdate.dto.ZoningUpdateRequest;
+import com.realestate.zoningupdate.event.ZoningUpdatedEvent;
+import com.realestate.zoningupdate.exception.BusinessException;
 import com.realestate.zoningupdate.exception.DatabasePermissionException;
 import com.realestate.zoningupdate.exception.ResourceNotFoundException;
 import com.realestate.zoningupdate.exception.ZoningUpdateException;
-import com.realestate.zoningupdate.model.Parcel;
 import com.realestate.zoningupdate.repository.ParcelRepository;
+import com.realestate.zoningupdate.util.CountingOutputStream;
 import com.realestate.zoningupdate.util.GeoJSONConverter;
+import com.realestate.zoningupdate.util.ParcelFormat;
+import com.realestate.zoningupdate.util.TileMath;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.exception.JDBCConnectionException;
-import org.postgresql.util.PGobject;
-import org.springframework.cache.annotation.Cacheable;
+import org.locationtech.jts.geom.Polygon;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.PermissionDeniedDataAccessException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
-import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -34,78 +53,211 @@ public class ParcelService {
 
     private final ParcelRepository parcelRepository;
     private final AuditService auditService;
-    private final ObjectMapper objectMapper;
+    private final ParcelSpatialIndex spatialIndex;
+    private final ParcelGeometrySimplifier geometrySimplifier;
+    private final ClusterTileService clusterTileService;
+    private final ParcelClusterIndex clusterIndex;
+    private final ZoningUpdateCoalescer coalescer;
+    private final ZoningStatistics zoningStatistics;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+
+    // Upper bound on cluster tiles per request, a normal viewport needs about 9
+    private static final int MAX_CLUSTER_TILES = 256;
+
+    @Value("${app.parcels.page.default-size:500}")
+    private int defaultPageSize;
+
+    @Value("${app.parcels.page.max-size:5000}")
+    private int maxPageSize;
+
+    @Value("${app.zoning.update.chunk-size:5000}")
+    private int updateChunkSize;
+
+    @Value("${app.zoning.update.commit-mode:ALL_OR_NOTHING}")
+    private ZoningUpdateRequest.CommitMode defaultCommitMode;
+
+    @Value("${app.zoning.area-update.max-parcels:50000}")
+    private int maxAreaUpdateParcels;
 
     /**
-     * Get all parcels as DTOs
+     * Get a page of parcels as DTOs
      *
-     * @return List of ParcelDTO objects
+     * @param pageRequest Cursor, page size and optional bounds/zoning filters
+     * @return Page of ParcelDTO objects with the cursor for the next page
+     * @throws BusinessException if the cursor or filters are invalid
      * @throws DataAccessException if a database access error occurs
      */
-    public List<ParcelDTO> getAllParcels() {
+    public CursorPage<ParcelDTO> getParcels(ParcelPageRequest pageRequest) {
+        CursorPage<ParcelFeature> page = getParcelPage(pageRequest);
+        List<ParcelDTO> parcels = page.getItems().stream()
+                .map(GeoJSONConverter::convertToDTO)
+                .collect(Collectors.toList());
+        return new CursorPage<>(parcels, page.getNextCursor());
+    }
+
+    /**
+     * Get a page of parcels ordered by id using keyset pagination.
+     * Each page is a single indexed range scan on id, so the cost per page stays
+     * constant no matter how deep into the table the client has walked.
+     *
+     * @param pageRequest Cursor, page size and optional bounds/zoning filters
+     * @return Page of parcels with the cursor for the next page
+     * @throws BusinessException if the cursor or filters are invalid
+     * @throws DataAccessException if a database access error occurs
+     */
+    public CursorPage<ParcelFeature> getParcelPage(ParcelPageRequest pageRequest) {
+        int pageSize = resolvePageSize(pageRequest.getLimit());
+        int afterId = decodeCursor(pageRequest.getCursor());
+
+        if (pageRequest.hasBounds() && (pageRequest.getNorth() == null || pageRequest.getSouth() == null
+                || pageRequest.getEast() == null || pageRequest.getWest() == null)) {
+            throw new BusinessException("Bounds filter requires north, south, east and west");
+        }
+
         try {
-            List<Parcel> parcels = parcelRepository.findAll();
-            return parcels.stream()
-                    .map(GeoJSONConverter::convertToDTO)
-                    .collect(Collectors.toList());
+            // Fetch one extra row to find out whether another page follows
+            int fetch = pageSize + 1;
+            List<ParcelFeature> parcels = pageRequest.hasBounds()
+                    ? parcelRepository.findFeaturesAfterByBounds(afterId, pageRequest.getZoningType(),
+                            pageRequest.getWest(), pageRequest.getSouth(),
+                            pageRequest.getEast(), pageRequest.getNorth(), fetch)
+                    : parcelRepository.findFeaturesAfter(afterId, pageRequest.getZoningType(), fetch);
+
+            String nextCursor = null;
+            if (parcels.size() > pageSize) {
+                parcels = parcels.subList(0, pageSize);
+                nextCursor = encodeCursor(parcels.get(pageSize - 1).getId());
+            }
+
+            log.info("Fetched page of {} parcels after id {}", parcels.size(), afterId);
+            return new CursorPage<>(parcels, nextCursor);
         } catch (JDBCConnectionException e) {
             log.error("Database connection error while fetching parcels", e);
             throw new DatabasePermissionException("Unable to connect to the database", e);
         } catch (DataAccessException e) {
             log.error("Error accessing database while fetching parcels", e);
             throw e;
-        } catch (Exception e) {
-            log.error("Unexpected error while fetching parcels", e);
-            throw new RuntimeException("An unexpected error occurred while fetching parcels", e);
         }
     }
 
     /**
-     * Get all parcels as GeoJSON format
+     * Write a list of parcels in the requested format
      *
-     * @return GeoJSON representation of all parcels
-     * @throws DataAccessException if a database access error occurs
+     * @param parcels Parcels to write
+     * @param format Response encoding (GeoJSON or compact binary)
+     * @param out Output stream the parcels are written to
+     * @throws IOException if writing to the output stream fails
+     */
+    public void writeParcels(List<ParcelFeature> parcels, ParcelFormat format, OutputStream out) throws IOException {
+        writeFeatures("page", format, parcels.stream(), ParcelFeature::getGeom, out);
+    }
+
+    /**
+     * Write features and record the write time, features written and response bytes.
+     * For database streams the write time includes fetching the rows.
+     *
+     * @param source Where the features come from, used as a metric tag
+     * @return Number of features written
      */
-    public Map<String, Object> getAllParcelsGeoJSON() {
+    private int writeFeatures(String source, ParcelFormat format, Stream<ParcelFeature> parcels,
+                              Function<ParcelFeature, Polygon> geometry, OutputStream out) throws IOException {
+        CountingOutputStream counting = new CountingOutputStream(out);
+        String formatTag = format.name().toLowerCase(Locale.ROOT);
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        int count = format.write(parcels, geometry, counting);
+        sample.stop(meterRegistry.timer("zoning.parcels.write", "source", source, "format", formatTag));
+
+        meterRegistry.summary("zoning.parcels.rows", "source", source).record(count);
+        meterRegistry.summary("zoning.parcels.response.bytes", "source", source, "format", formatTag)
+                .record(counting.getCount());
+        return count;
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit < 1) {
+            throw new BusinessException("Page size must be at least 1");
+        }
+        return Math.min(limit, maxPageSize);
+    }
+
+    /**
+     * Encode the id of the last parcel on a page as an opaque cursor
+     */
+    static String encodeCursor(int lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor from encodeCursor, 0 (before the first parcel) when absent
+     *
+     * @throws BusinessException if the cursor is malformed
+     */
+    static int decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0;
+        }
         try {
-            List<Parcel> parcels = parcelRepository.findAll();
-            return GeoJSONConverter.convertToGeoJSON(parcels);
-        } catch (JDBCConnectionException e) {
-            log.error("Database connection error while fetching parcels as GeoJSON", e);
-            throw new DatabasePermissionException("Unable to connect to the database", e);
-        } catch (DataAccessException e) {
-            log.error("Error accessing database while fetching parcels as GeoJSON", e);
-            throw e;
-        } catch (Exception e) {
-            log.error("Unexpected error while fetching parcels as GeoJSON", e);
-            throw new RuntimeException("An unexpected error occurred while fetching parcels as GeoJSON", e);
+            return Integer.parseInt(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Invalid page cursor");
         }
     }
 
     /**
-     * Get parcels within specified geographic bounds
+     * Stream parcels within specified geographic bounds in the requested format.
+     * When a zoom level is given, geometries are simplified to the detail visible at that zoom.
      *
      * @param north Northern latitude bound
      * @param south Southern latitude bound
      * @param east Eastern longitude bound
      * @param west Western longitude bound
-     * @return GeoJSON representation of parcels within bounds
+     * @param zoom Map zoom level used for simplification, or null for full resolution
+     * @param format Response encoding (GeoJSON or compact binary)
+     * @param out Output stream the parcels are written to
+     * @throws IOException if writing to the output stream fails
      */
-    public Map<String, Object> getParcelsByBounds(double north, double south, double east, double west) {
-        List<Parcel> parcels = parcelRepository.findByBounds(west, south, east, north);
-        log.info("Found {} parcels within the requested bounds", parcels.size());
-        return GeoJSONConverter.convertToGeoJSON(parcels);
-    }
+    @Timed(value = "zoning.parcels.bounds", description = "Time to serve parcels within bounds")
+    public void writeParcelsByBounds(double north, double south, double east, double west,
+                                     Integer zoom, ParcelFormat format, OutputStream out) throws IOException {
+        Function<ParcelFeature, Polygon> geometry = parcel -> geometrySimplifier.simplify(parcel, zoom);
+
+        if (spatialIndex.isReady()) {
+            // Answer from memory without borrowing a database connection
+            List<ParcelFeature> parcels = spatialIndex.findByBounds(west, south, east, north);
+            int count = writeFeatures("spatial-index", format, parcels.stream(), geometry, out);
+            log.info("Found {} parcels within the requested bounds (spatial index)", count);
+            return;
+        }
 
-    private double calculateGridSize(int zoom) {
-        // Simple grid size calculation
-        return 0.001 * Math.pow(2, 16 - zoom);
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<ParcelFeature> parcels = parcelRepository.streamFeaturesByBounds(west, south, east, north)) {
+                    int count = writeFeatures("bounds", format, parcels, geometry, out);
+                    log.info("Found {} parcels within the requested bounds", count);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
     }
 
     /**
      * Get clusters of parcels within specified geographic bounds.
      * This method aggregates parcels into clusters for efficient map rendering
-     * at lower zoom levels.
+     * at lower zoom levels. Zoom levels held by the in-memory cluster index are
+     * answered from memory; otherwise the result is the union of the cached cluster
+     * tiles covering the bounds, so overlapping viewports share cache entries.
      *
      * @param north Northern latitude bound
      * @param south Southern latitude bound
@@ -113,37 +265,47 @@ public class ParcelService {
      * @param west Western longitude bound
      * @param zoom Current map zoom level (used to determine clustering granularity)
      * @return List of cluster DTOs
+     * @throws BusinessException if the zoom level is out of range or the bounds cover too many
+     *                           cluster tiles for it
      */
-    @Cacheable(value = "clusterCache", key = "{#north, #south, #east, #west, #zoom}")
+    @Timed(value = "zoning.parcels.clusters", description = "Time to compute clusters within bounds")
     public List<ClusterDTO> getParcelClusters(double north, double south, double east, double west, int zoom) {
         try {
             log.info("Fetching parcel clusters for bounds: N:{}, S:{}, E:{}, W:{}, zoom:{}",
                     north, south, east, west, zoom);
 
-            // Calculate grid size based on zoom
-            double gridSize = calculateGridSize(zoom);
-
-            // Execute clustering query
-            List<Object[]> results = parcelRepository.findClusters(west, south, east, north, gridSize);
-
-            List<ClusterDTO> clusters = new ArrayList<>();
-
-            // If no clusters returned from query, create a single fallback cluster
-            if (results == null || results.isEmpty()) {
-                log.info("No clusters found from query, checking for parcels in bounds");
-                List<Parcel> parcelsInBounds = parcelRepository.findByBounds(west, south, east, north);
+            List<ClusterDTO> clusters = clusterIndex.covers(zoom)
+                    ? clusterIndex.findClusters(west, south, east, north, zoom)
+                    : findClustersFromTiles(north, south, east, west, zoom);
+
+            // If no clusters were found, create a single fallback cluster
+            if (clusters.isEmpty()) {
+                log.info("No clusters found, checking for parcels in bounds");
+                // The index counts in memory, only the database path has to materialize the parcels
+                List<ParcelFeature> parcelsInBounds = spatialIndex.isReady()
+                        ? null
+                        : parcelRepository.findFeaturesByBounds(west, south, east, north);
+                int parcelCount = parcelsInBounds == null
+                        ? spatialIndex.countByBounds(west, south, east, north)
+                        : parcelsInBounds.size();
 
                 // Only create fallback cluster if we have at least 10 parcels
-                if (parcelsInBounds.size() >= 10) {
-                    log.info("Creating fallback cluster with {} parcels", parcelsInBounds.size());
+                if (parcelCount >= 10) {
+                    log.info("Creating fallback cluster with {} parcels", parcelCount);
                     // Create a fallback cluster with all parcels in bounds
                     Map<String, Integer> zoningBreakdown = new HashMap<>();
 
-                    for (Parcel parcel : parcelsInBounds) {
-                        String zoningType = parcel.getZoning_typ() != null ?
-                                parcel.getZoning_typ() : "Unknown";
-                        zoningBreakdown.put(zoningType,
-                                zoningBreakdown.getOrDefault(zoningType, 0) + 1);
+                    if (parcelsInBounds == null) {
+                        for (Object[] row : spatialIndex.summarizeZoningByBounds(west, south, east, north)) {
+                            zoningBreakdown.merge((String) row[0], ((Number) row[2]).intValue(), Integer::sum);
+                        }
+                    } else {
+                        for (ParcelFeature parcel : parcelsInBounds) {
+                            String zoningType = parcel.getZoningType() != null ?
+                                    parcel.getZoningType() : "Unknown";
+                            zoningBreakdown.put(zoningType,
+                                    zoningBreakdown.getOrDefault(zoningType, 0) + 1);
+                        }
                     }
 
                     // Calculate center point from bounds
@@ -153,7 +315,7 @@ public class ParcelService {
                     // Create and add the fallback cluster
                     ClusterDTO fallbackCluster = new ClusterDTO(
                             new double[]{centerX, centerY},
-                            parcelsInBounds.size(),
+                            parcelCount,
                             zoningBreakdown,
                             new double[]{west, south, east, north}
                     );
@@ -161,49 +323,16 @@ public class ParcelService {
                     clusters.add(fallbackCluster);
                 } else {
                     log.info("Not enough parcels ({}) for minimum cluster size threshold",
-                            parcelsInBounds.size());
+                            parcelCount);
                 }
                 return clusters;
             }
 
-            // Process results from query
-            for (Object[] result : results) {
-                try {
-                    // Skip null results
-                    if (result == null || result.length < 4 || result[0] == null) {
-                        continue;
-                    }
-
-                    // Parse the cluster information from the query result
-                    Double[] centerArray = (Double[]) result[0]; // or use PGobject and cast
-                    double[] center = Arrays.stream(centerArray).mapToDouble(Double::doubleValue).toArray();
-                    int count = ((Number) result[1]).intValue();
-
-                    // Skip clusters with less than 10 parcels (double check)
-                    if (count < 10) {
-                        continue;
-                    }
-
-                    // Parse the zoning breakdown JSON
-                    String jsonStr = result[2].toString();  // safe toString() for jsonb
-
-                    Map<String, Integer> zoningBreakdown = parseZoningBreakdown(jsonStr);
-
-                    // Get the bounds
-                    Double[] boundsArray = (Double[]) result[3];
-                    double[] bounds = Arrays.stream(boundsArray).mapToDouble(Double::doubleValue).toArray();
-
-                    // Create and add the cluster DTO
-                    ClusterDTO cluster = new ClusterDTO(center, count, zoningBreakdown, bounds);
-                    clusters.add(cluster);
-                } catch (Exception e) {
-                    log.error("Error processing cluster row: {}", e.getMessage());
-                    // Continue processing other rows
-                }
-            }
-
             log.info("Returning {} clusters", clusters.size());
+            meterRegistry.summary("zoning.parcels.rows", "source", "clusters").record(clusters.size());
             return clusters;
+        } catch (BusinessException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error fetching parcel clusters", e);
             // Return empty list on error to allow frontend to fall back
@@ -211,43 +340,69 @@ public class ParcelService {
         }
     }
 
-    /**
-     * Helper method to parse zoning breakdown from PostgreSQL JSONB object
-     */
-    @SuppressWarnings("unchecked")
-    private Map<String, Integer> parseZoningBreakdown(Object jsonbObj) {
-        try {
-            if (jsonbObj instanceof PGobject) {
-                PGobject pgObj = (PGobject) jsonbObj;
-                if ("jsonb".equals(pgObj.getType())) {
-                    return objectMapper.readValue(pgObj.getValue(), Map.class);
+    private List<ClusterDTO> findClustersFromTiles(double north, double south, double east, double west, int zoom) {
+        // Zoning updates only evict cluster tiles in this zoom range
+        if (zoom < 0 || zoom > TileMath.MAX_ZOOM) {
+            throw new BusinessException("Zoom level must be between 0 and " + TileMath.MAX_ZOOM);
+        }
+
+        long minTileX = clusterTileService.tileIndex(west, zoom);
+        long maxTileX = clusterTileService.tileIndex(east, zoom);
+        long minTileY = clusterTileService.tileIndex(south, zoom);
+        long maxTileY = clusterTileService.tileIndex(north, zoom);
+
+        long tileCount = (maxTileX - minTileX + 1) * (maxTileY - minTileY + 1);
+        if (tileCount > MAX_CLUSTER_TILES) {
+            throw new BusinessException("Requested area is too large for zoom level " + zoom);
+        }
+
+        List<ClusterDTO> clusters = new ArrayList<>();
+        for (long tileX = minTileX; tileX <= maxTileX; tileX++) {
+            for (long tileY = minTileY; tileY <= maxTileY; tileY++) {
+                for (ClusterDTO cluster : clusterTileService.getClusterTile(zoom, tileX, tileY)) {
+                    // Edge tiles reach past the viewport, only keep clusters that overlap it
+                    double[] bounds = cluster.getBounds();
+                    if (bounds[0] <= east && bounds[2] >= west && bounds[1] <= north && bounds[3] >= south) {
+                        clusters.add(cluster);
+                    }
                 }
-            } else if (jsonbObj instanceof String) {
-                return objectMapper.readValue((String) jsonbObj, Map.class);
-            } else if (jsonbObj instanceof Map) {
-                return (Map<String, Integer>) jsonbObj;
             }
-        } catch (JsonProcessingException e) {
-            log.error("Error parsing zoning breakdown from JSONB", e);
         }
-        return new HashMap<>();
+        return clusters;
     }
 
-
     /**
      * Update zoning information for a list of parcels
      *
-     * This method executes within a transaction to ensure that both
-     * the database update and the audit log entry are created atomically.
-     * If either operation fails, the entire transaction will be rolled back.
-     *
      * @param request Contains parcel IDs and new zoning information
      * @throws ZoningUpdateException if the update fails
      * @throws ResourceNotFoundException if a parcel is not found
      * @throws DatabasePermissionException if there's a permission issue
+     * @see #updateZoning(ZoningUpdateRequest, ZoningUpdateProgress)
      */
-    @Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Exception.class)
+    @Timed(value = "zoning.update", description = "Time to apply a zoning update")
     public void updateZoning(ZoningUpdateRequest request) {
+        updateZoning(request, null);
+    }
+
+    /**
+     * Update zoning information for a list of parcels, reporting progress per chunk
+     *
+     * The IDs are applied in chunks of app.zoning.update.chunk-size. With ALL_OR_NOTHING
+     * every chunk runs in one transaction and any failure rolls back the whole request.
+     * With PER_CHUNK each chunk is committed on its own; a chunk with missing parcels is
+     * rolled back and stops the update, but earlier chunks stay applied. Requests small
+     * enough for a single chunk may be merged with concurrent requests for the same
+     * zoning by ZoningUpdateCoalescer; they still succeed or fail on their own.
+     *
+     * @param request Contains parcel IDs, new zoning information and an optional commit mode
+     * @param progress Optional callback invoked after each chunk
+     * @throws ZoningUpdateException if the update fails
+     * @throws ResourceNotFoundException if a parcel is not found
+     * @throws DatabasePermissionException if there's a permission issue
+     */
+    @Timed(value = "zoning.update", description = "Time to apply a zoning update")
+    public void updateZoning(ZoningUpdateRequest request, ZoningUpdateProgress progress) {
         // Validate request
         if (request.getParcelIds() == null || request.getParcelIds().isEmpty()) {
             log.warn("Attempted to update zoning with empty parcel list");
@@ -262,79 +417,314 @@ public class ParcelService {
             throw new ZoningUpdateException("Zoning sub-type cannot be empty");
         }
 
-        log.info("Updating zoning for {} parcels: {}",
-                request.getParcelIds().size(),
-                request.getParcelIds());
+        if (request.getCommitMode() == null) {
+            request.setCommitMode(defaultCommitMode);
+        }
+        List<Integer> parcelIds = request.getParcelIds();
+        ZoningUpdateRequest.CommitMode commitMode = request.getCommitMode();
+        int chunkCount = (parcelIds.size() + updateChunkSize - 1) / updateChunkSize;
+
+        log.info("Updating zoning for {} parcels in {} chunks ({})", parcelIds.size(), chunkCount, commitMode);
+        log.debug("Parcels to update: {}", parcelIds);
+
+        TransactionTemplate updateTransaction = new TransactionTemplate(transactionManager);
+        updateTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
 
         try {
-            // Fetch existing parcels to get their previous zoning info before updating
-            List<Parcel> existingParcels = parcelRepository.findAllById(request.getParcelIds());
-
-            // Create a map of previous zoning info for audit purposes
-            Map<Integer, Map<String, String>> previousZoningInfo = new HashMap<>();
-            for (Parcel parcel : existingParcels) {
-                Map<String, String> zoningInfo = new HashMap<>();
-                zoningInfo.put("type", parcel.getZoning_typ());
-                zoningInfo.put("subType", parcel.getZoning_sub());
-                previousZoningInfo.put(parcel.getId(), zoningInfo);
+            if (coalescer.accepts(request)) {
+                // Small requests share a transaction with concurrent ones for the same zoning
+                List<ZoningChange> changes = coalescer.update(request);
+                logZoningChanges(request.getZoningType(), request.getZoningSubType(),
+                        request.getUsername(), changes);
+                reportProgress(progress, changes.size(), parcelIds.size(), chunkCount);
+            } else if (commitMode == ZoningUpdateRequest.CommitMode.ALL_OR_NOTHING) {
+                List<ZoningChange> changes = updateTransaction.execute(status -> {
+                    List<ZoningChange> applied = new ArrayList<>(parcelIds.size());
+                    for (int start = 0; start < parcelIds.size(); start += updateChunkSize) {
+                        applied.addAll(updateChunk(request, start));
+                        reportProgress(progress, applied.size(), parcelIds.size(), chunkCount);
+                    }
+                    return applied;
+                });
+                logZoningChanges(request.getZoningType(), request.getZoningSubType(),
+                        request.getUsername(), changes);
+            } else {
+                int committed = 0;
+                try {
+                    for (int start = 0; start < parcelIds.size(); start += updateChunkSize) {
+                        int chunkStart = start;
+                        List<ZoningChange> changes = updateTransaction.execute(status -> updateChunk(request, chunkStart));
+                        logZoningChanges(request.getZoningType(), request.getZoningSubType(),
+                                request.getUsername(), changes);
+                        committed += changes.size();
+                        reportProgress(progress, committed, parcelIds.size(), chunkCount);
+                    }
+                } catch (RuntimeException e) {
+                    if (committed > 0) {
+                        log.warn("Zoning update stopped after {} of {} parcels were committed",
+                                committed, parcelIds.size());
+                    }
+                    throw e;
+                }
             }
 
-            // Update zoning for all parcels in a single transaction
-            int updatedCount = parcelRepository.updateZoningForParcels(
-                    request.getParcelIds(),
-                    request.getZoningType(),
-                    request.getZoningSubType()
-            );
+            log.info("Successfully updated zoning for {} parcels", parcelIds.size());
+        } catch (Exception e) {
+            throw translateUpdateFailure(e, request.getParcelIds().size() + " parcels");
+        }
+    }
 
-            log.info("Successfully updated zoning for {} parcels", updatedCount);
+    /**
+     * Rezone every parcel inside an area, selecting and updating them in one statement
+     *
+     * A parcel is inside the area when its interior point is, so parcels that only
+     * touch the edge are left alone. At most one parcel more than
+     * app.zoning.area-update.max-parcels is selected and updated, and the update is
+     * rolled back if that many matched, so an oversized area costs no more than the limit.
+     *
+     * @param request Area as GeoJSON or bounds, optional current zoning filter and new zoning
+     * @return Number of parcels updated
+     * @throws ZoningUpdateException if the area is invalid or the update fails
+     * @throws ResourceNotFoundException if no parcels match
+     * @throws DatabasePermissionException if there's a permission issue
+     */
+    @Timed(value = "zoning.update.area", description = "Time to apply a zoning update by area")
+    public int updateZoningInArea(ZoningAreaUpdateRequest request) {
+        String geometry = resolveAreaGeometry(request);
+        String currentZoningType = (request.getCurrentZoningType() != null
+                && !request.getCurrentZoningType().trim().isEmpty()) ? request.getCurrentZoningType() : null;
 
-            if (updatedCount == 0) {
-                throw new ResourceNotFoundException("None of the specified parcels were found");
-            }
+        log.info("Updating zoning in area (current zoning filter: {})", currentZoningType);
 
-            if (updatedCount != request.getParcelIds().size()) {
-                log.warn("Requested to update {} parcels but only {} were updated",
-                        request.getParcelIds().size(), updatedCount);
+        TransactionTemplate updateTransaction = new TransactionTemplate(transactionManager);
+        updateTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
 
-                throw new ZoningUpdateException(String.format(
-                        "Partial update: requested to update %d parcels but only %d were found",
-                        request.getParcelIds().size(), updatedCount));
+        try {
+            List<ZoningChange> changes = updateTransaction.execute(status -> {
+                // One over the limit is enough to tell that the area exceeds it
+                List<ZoningChange> applied = parcelRepository.updateZoningInAreaReturningPrevious(
+                        geometry, currentZoningType, request.getZoningType(), request.getZoningSubType(),
+                        maxAreaUpdateParcels + 1);
+
+                if (applied.isEmpty()) {
+                    throw new ResourceNotFoundException("No parcels were found in the specified area");
+                }
+                if (applied.size() > maxAreaUpdateParcels) {
+                    throw new ZoningUpdateException(String.format(
+                            "The area contains more than the limit of %d parcels", maxAreaUpdateParcels));
+                }
+
+                List<Integer> parcelIds = applied.stream().map(ZoningChange::getParcelId).collect(Collectors.toList());
+                eventPublisher.publishEvent(new ZoningUpdatedEvent(
+                        parcelIds, request.getZoningType(), request.getZoningSubType(), applied));
+                return applied;
+            });
+
+            logZoningChanges(request.getZoningType(), request.getZoningSubType(),
+                    request.getUsername(), changes);
+            log.info("Successfully updated zoning for {} parcels in area", changes.size());
+            return changes.size();
+        } catch (Exception e) {
+            throw translateUpdateFailure(e, "parcels in area");
+        }
+    }
+
+    /**
+     * Get the GeoJSON text of the area to rezone, from the geometry or the bounds
+     */
+    private String resolveAreaGeometry(ZoningAreaUpdateRequest request) {
+        if (request.getGeometry() != null && !request.getGeometry().isNull()) {
+            String type = request.getGeometry().path("type").asText();
+            if (!"Polygon".equals(type) && !"MultiPolygon".equals(type)) {
+                throw new ZoningUpdateException("Area geometry must be a GeoJSON Polygon or MultiPolygon");
             }
-        } catch (PermissionDeniedDataAccessException e) {
+            return request.getGeometry().toString();
+        }
+
+        if (request.getNorth() == null || request.getSouth() == null
+                || request.getEast() == null || request.getWest() == null) {
+            throw new ZoningUpdateException("Either a geometry or north, south, east and west bounds must be specified");
+        }
+        if (request.getNorth() <= request.getSouth() || request.getEast() <= request.getWest()) {
+            throw new ZoningUpdateException("Invalid bounds: north must exceed south and east must exceed west");
+        }
+        return String.format(Locale.ROOT,
+                "{\"type\":\"Polygon\",\"coordinates\":[[[%s,%s],[%s,%s],[%s,%s],[%s,%s],[%s,%s]]]}",
+                request.getWest(), request.getSouth(), request.getEast(), request.getSouth(),
+                request.getEast(), request.getNorth(), request.getWest(), request.getNorth(),
+                request.getWest(), request.getSouth());
+    }
+
+    /**
+     * Map a failed zoning update to the exception reported to the client
+     *
+     * @param e The failure
+     * @param target What the update targeted, for logging
+     * @return The exception to throw
+     */
+    private RuntimeException translateUpdateFailure(Exception e, String target) {
+        if (e instanceof PermissionDeniedDataAccessException) {
             log.error("Permission denied to update zoning data", e);
-            throw new DatabasePermissionException("Permission denied for updating zoning. Contact your administrator for access.", e);
-        } catch (DataIntegrityViolationException e) {
+            return new DatabasePermissionException("Permission denied for updating zoning. Contact your administrator for access.", e);
+        }
+        if (e instanceof DataIntegrityViolationException) {
             log.error("Data integrity violation updating zoning", e);
-            throw new ZoningUpdateException("Data integrity error. Check that your input is valid.", e);
-        } catch (DataAccessException e) {
+            return new ZoningUpdateException("Data integrity error. Check that your input is valid.", e);
+        }
+        if (e instanceof DataAccessException) {
             // Check if the underlying cause is a permission issue
             if (e.getCause() instanceof SQLException) {
                 SQLException sqlEx = (SQLException) e.getCause();
                 // PostgreSQL permission denied error code is 42501
                 if (sqlEx.getSQLState() != null && sqlEx.getSQLState().equals("42501")) {
                     log.error("SQL Permission denied to update zoning data: {}", sqlEx.getMessage());
-                    throw new DatabasePermissionException("Permission denied for updating zoning. Contact your administrator for access.", e);
+                    return new DatabasePermissionException("Permission denied for updating zoning. Contact your administrator for access.", e);
                 }
             }
 
             log.error("Data access error updating zoning: {}", e.getMessage(), e);
-            throw new ZoningUpdateException("Database error occurred while updating zoning", e);
-        } catch (ResourceNotFoundException | ZoningUpdateException | DatabasePermissionException e) {
+            return new ZoningUpdateException("Database error occurred while updating zoning", e);
+        }
+        if (e instanceof ResourceNotFoundException || e instanceof ZoningUpdateException
+                || e instanceof DatabasePermissionException) {
             // Let these custom exceptions pass through as they're already appropriately typed
-            throw e;
-        } catch (Exception e) {
-            log.error("Failed to update zoning for parcels: {}", request.getParcelIds(), e);
-            throw new ZoningUpdateException("Failed to update zoning", e);
+            return (RuntimeException) e;
         }
+        log.error("Failed to update zoning for {}", target, e);
+        return new ZoningUpdateException("Failed to update zoning", e);
     }
 
     /**
-     * Get statistics about zoning types
+     * Apply one chunk of a request inside the current transaction
+     *
+     * @param request The zoning update request
+     * @param start Index of the first parcel ID of the chunk
+     * @return Previous zoning of the updated parcels
+     * @throws ResourceNotFoundException if none of the chunk's parcels exist
+     * @throws ZoningUpdateException if some of the chunk's parcels do not exist
+     */
+    private List<ZoningChange> updateChunk(ZoningUpdateRequest request, int start) {
+        List<Integer> chunk = request.getParcelIds()
+                .subList(start, Math.min(start + updateChunkSize, request.getParcelIds().size()));
+
+        // Update all parcels in one statement that also returns their previous zoning
+        List<ZoningChange> changes = parcelRepository.updateZoningReturningPrevious(
+                chunk,
+                request.getZoningType(),
+                request.getZoningSubType()
+        );
+        int updatedCount = changes.size();
+
+        eventPublisher.publishEvent(new ZoningUpdatedEvent(
+                chunk, request.getZoningType(), request.getZoningSubType(), changes));
+
+        if (updatedCount == 0) {
+            throw new ResourceNotFoundException("None of the specified parcels were found");
+        }
+
+        if (updatedCount != chunk.size()) {
+            log.warn("Requested to update {} parcels but only {} were updated", chunk.size(), updatedCount);
+
+            throw new ZoningUpdateException(String.format(
+                    "Partial update: requested to update %d parcels but only %d were found",
+                    chunk.size(), updatedCount));
+        }
+        return changes;
+    }
+
+    private void reportProgress(ZoningUpdateProgress progress, int processed, int total, int chunkCount) {
+        if (chunkCount > 1) {
+            log.info("Zoning update progress: {}/{} parcels", processed, total);
+        }
+        if (progress != null) {
+            progress.onChunkApplied(processed, total);
+        }
+    }
+
+    private void logZoningChanges(String zoningType, String zoningSubType, String username,
+                                  List<ZoningChange> changes) {
+        auditService.logAuditEvent("ZONING_UPDATE",
+                describeZoningChanges(zoningType, zoningSubType, changes),
+                (username != null) ? username : "anonymous");
+    }
+
+    /**
+     * Describe an update for the audit trail, grouping parcels by the zoning they had before
+     */
+    private String describeZoningChanges(String zoningType, String zoningSubType, List<ZoningChange> changes) {
+        Map<String, List<Integer>> byPreviousZoning = new TreeMap<>();
+        for (ZoningChange change : changes) {
+            String previous = "[" + (change.getPreviousType() != null ? change.getPreviousType() : "Unknown")
+                    + " - " + (change.getPreviousSubType() != null ? change.getPreviousSubType() : "Unknown") + "]";
+            byPreviousZoning.computeIfAbsent(previous, key -> new ArrayList<>()).add(change.getParcelId());
+        }
+
+        StringBuilder details = new StringBuilder();
+        details.append("Updated ").append(changes.size()).append(" parcels to [")
+                .append(zoningType).append(" - ").append(zoningSubType)
+                .append("]. Previous zoning:");
+        byPreviousZoning.forEach((previous, ids) -> {
+            Collections.sort(ids);
+            details.append("\n").append(previous).append(": ").append(ids);
+        });
+        return details.toString();
+    }
+
+    /**
+     * Get zoning statistics for the parcels intersecting the specified bounds. Answered
+     * by the in-memory spatial index once it is loaded, otherwise aggregated by the
+     * database so no geometries leave it
+     *
+     * @param north Northern latitude bound
+     * @param south Southern latitude bound
+     * @param east Eastern longitude bound
+     * @param west Western longitude bound
+     * @return Counts by zoning type and sub-type, and parcel area
+     * @throws BusinessException if the bounds are invalid
+     * @throws DataAccessException if a database access error occurs
+     */
+    @Timed(value = "zoning.statistics.bounds", description = "Time to compute statistics within bounds")
+    public BoundsStatisticsDTO getBoundsStatistics(double north, double south, double east, double west) {
+        if (north <= south || east <= west) {
+            throw new BusinessException("Invalid bounds: north must exceed south and east must exceed west");
+        }
+
+        List<Object[]> rows = spatialIndex.isReady()
+                ? spatialIndex.summarizeZoningByBounds(west, south, east, north)
+                : parcelRepository.summarizeZoningByBounds(west, south, east, north);
+
+        BoundsStatisticsDTO statistics = new BoundsStatisticsDTO();
+        for (Object[] row : rows) {
+            String zoningType = (String) row[0];
+            String zoningSubType = (String) row[1];
+            long count = ((Number) row[2]).longValue();
+            double area = ((Number) row[3]).doubleValue();
+
+            statistics.setTotalParcels(statistics.getTotalParcels() + count);
+            statistics.setTotalArea(statistics.getTotalArea() + area);
+            statistics.getByZoningType().merge(zoningType, count, Long::sum);
+            statistics.getAreaByZoningType().merge(zoningType, area, Double::sum);
+            statistics.getByZoningSubType()
+                    .computeIfAbsent(zoningType, key -> new TreeMap<>())
+                    .merge(zoningSubType, count, Long::sum);
+        }
+
+        log.info("Computed statistics for {} parcels within the requested bounds", statistics.getTotalParcels());
+        return statistics;
+    }
+
+    /**
+     * Get statistics about zoning types. Answered from the live counters once they
+     * are loaded, otherwise counted by the database.
      *
      * @return Map of zoning type to count
      * @throws DataAccessException if a database access error occurs
      */
     public Map<String, Long> getZoningTypeStatistics() {
+        if (zoningStatistics.isReady()) {
+            return zoningStatistics.getCounts();
+        }
+
         try {
             List<Object[]> results = parcelRepository.countParcelsByZoningType();
 
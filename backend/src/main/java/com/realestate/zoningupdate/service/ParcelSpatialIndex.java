@@ -0,0 +1,239 @@
+package com.realestate.zoningupdate.service;
+
+import com.realestate.zoningupdate.dto.ParcelFeature;
+import com.realestate.zoningupdate.event.ZoningUpdatedEvent;
+import com.realestate.zoningupdate.repository.ParcelRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Optional in-memory spatial index over all parcels.
+ *
+ * Parcel envelopes are held in a JTS STRtree and each geometry is prepared once,
+ * so bounds, count, statistics and intersection queries can be answered without a
+ * round trip to PostGIS. Parcel areas are read from PostGIS when loading, so area
+ * totals match the database's. The database
+ * remains the source of truth: the index is loaded at startup and kept in sync with
+ * zoning updates after they commit. Updates that commit while the index is loading
+ * are buffered and replayed once it is complete.
+ * Enable with app.map.spatial-index.enabled=true.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ParcelSpatialIndex {
+
+    private final ParcelRepository parcelRepository;
+
+    private final GeometryFactory geometryFactory = new GeometryFactory();
+
+    @Value("${app.map.spatial-index.enabled:false}")
+    private boolean enabled;
+
+    // Parcel geometry never changes through this application, so the tree is built
+    // once and only the parcel attributes held in the map are replaced on update
+    private volatile STRtree tree;
+    private final Map<Integer, IndexedParcel> parcels = new ConcurrentHashMap<>();
+    private volatile boolean ready = false;
+
+    // Updates received while the index is loading, null when no load is running
+    private final Object loadLock = new Object();
+    private List<ZoningUpdatedEvent> pendingUpdates;
+
+    // Area in square meters on the spheroid
+    private record IndexedParcel(ParcelFeature parcel, PreparedGeometry geometry, double area) {
+    }
+
+    /**
+     * Whether the index is enabled and fully loaded
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Load all parcels into the index once the application has started
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        if (!enabled) {
+            log.info("Parcel spatial index is disabled");
+            return;
+        }
+
+        synchronized (loadLock) {
+            pendingUpdates = new ArrayList<>();
+        }
+
+        long start = System.currentTimeMillis();
+        STRtree newTree = new STRtree();
+        Map<Integer, IndexedParcel> loaded = new ConcurrentHashMap<>();
+
+        try (Stream<Object[]> rows = parcelRepository.streamIndexRows()) {
+            rows.forEach(row -> {
+                ParcelFeature parcel = ParcelFeature.fromRow(row);
+                if (parcel.getGeom() == null) {
+                    return;
+                }
+                // The area follows the feature columns
+                double area = ((Number) row[11]).doubleValue();
+                loaded.put(parcel.getId(),
+                        new IndexedParcel(parcel, PreparedGeometryFactory.prepare(parcel.getGeom()), area));
+                newTree.insert(parcel.getGeom().getEnvelopeInternal(), parcel.getId());
+            });
+        } catch (Exception e) {
+            log.error("Failed to load parcel spatial index, queries will use the database", e);
+            synchronized (loadLock) {
+                pendingUpdates = null;
+            }
+            return;
+        }
+
+        newTree.build();
+        int replayed;
+        synchronized (loadLock) {
+            parcels.clear();
+            parcels.putAll(loaded);
+            tree = newTree;
+            // The stream may have read some rows before these updates committed
+            pendingUpdates.forEach(this::applyZoning);
+            replayed = pendingUpdates.size();
+            pendingUpdates = null;
+            ready = true;
+        }
+
+        log.info("Loaded {} parcels into spatial index in {} ms, replayed {} zoning updates made while loading",
+                loaded.size(), System.currentTimeMillis() - start, replayed);
+    }
+
+    /**
+     * Find parcels intersecting the specified bounds
+     *
+     * @param west  Western longitude bound
+     * @param south Southern latitude bound
+     * @param east  Eastern longitude bound
+     * @param north Northern latitude bound
+     * @return Parcels within the bounds
+     */
+    public List<ParcelFeature> findByBounds(double west, double south, double east, double north) {
+        Envelope envelope = new Envelope(west, east, south, north);
+        return findIntersecting(envelope, geometryFactory.toGeometry(envelope));
+    }
+
+    /**
+     * Count parcels intersecting the specified bounds
+     *
+     * @param west  Western longitude bound
+     * @param south Southern latitude bound
+     * @param east  Eastern longitude bound
+     * @param north Northern latitude bound
+     * @return Number of parcels within the bounds
+     */
+    public int countByBounds(double west, double south, double east, double north) {
+        Envelope envelope = new Envelope(west, east, south, north);
+        int[] count = {0};
+        forEachIntersecting(envelope, geometryFactory.toGeometry(envelope), indexed -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * Count parcels and sum their area by zoning type and sub-type within the specified
+     * bounds, like ParcelRepository.summarizeZoningByBounds
+     *
+     * @return Rows of zoning type, zoning sub-type, parcel count, area in square meters
+     */
+    public List<Object[]> summarizeZoningByBounds(double west, double south, double east, double north) {
+        Envelope envelope = new Envelope(west, east, south, north);
+        Map<List<String>, double[]> totals = new HashMap<>();
+        forEachIntersecting(envelope, geometryFactory.toGeometry(envelope), indexed -> {
+            ParcelFeature parcel = indexed.parcel();
+            List<String> key = List.of(
+                    parcel.getZoningType() != null ? parcel.getZoningType() : "Unknown",
+                    parcel.getZoningSub() != null ? parcel.getZoningSub() : "Unknown");
+            double[] total = totals.computeIfAbsent(key, k -> new double[2]);
+            total[0]++;
+            total[1] += indexed.area();
+        });
+
+        List<Object[]> rows = new ArrayList<>(totals.size());
+        totals.forEach((key, total) -> rows.add(new Object[]{key.get(0), key.get(1), (long) total[0], total[1]}));
+        return rows;
+    }
+
+    /**
+     * Find parcels intersecting an arbitrary geometry in EPSG:4326
+     *
+     * @param geometry Query geometry
+     * @return Parcels intersecting the geometry
+     */
+    public List<ParcelFeature> findIntersecting(Geometry geometry) {
+        return findIntersecting(geometry.getEnvelopeInternal(), geometry);
+    }
+
+    private List<ParcelFeature> findIntersecting(Envelope envelope, Geometry geometry) {
+        List<ParcelFeature> result = new ArrayList<>();
+        forEachIntersecting(envelope, geometry, indexed -> result.add(indexed.parcel()));
+        return result;
+    }
+
+    private void forEachIntersecting(Envelope envelope, Geometry geometry, Consumer<IndexedParcel> action) {
+        for (Object item : tree.query(envelope)) {
+            IndexedParcel indexed = parcels.get((Integer) item);
+            if (indexed != null && indexed.geometry().intersects(geometry)) {
+                action.accept(indexed);
+            }
+        }
+    }
+
+    /**
+     * Apply committed zoning changes to the indexed parcels. Runs before the other
+     * listeners, so caches they clear are refilled from the updated index.
+     */
+    @TransactionalEventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onZoningUpdated(ZoningUpdatedEvent event) {
+        synchronized (loadLock) {
+            if (pendingUpdates != null) {
+                pendingUpdates.add(event);
+                return;
+            }
+        }
+        if (!isReady()) {
+            return;
+        }
+        applyZoning(event);
+    }
+
+    private void applyZoning(ZoningUpdatedEvent event) {
+        for (Integer id : event.getParcelIds()) {
+            // Replace rather than mutate so concurrent readers never see a half-updated parcel
+            parcels.computeIfPresent(id, (key, indexed) -> new IndexedParcel(
+                    indexed.parcel().withZoning(event.getZoningType(), event.getZoningSubType()),
+                    indexed.geometry(), indexed.area()));
+        }
+        log.debug("Applied zoning update for {} parcels to spatial index", event.getParcelIds().size());
+    }
+}
@@ -0,0 +1,203 @@
+package com.realestate.zoningupdate.service;
+
+import com.realestate.zoningupdate.config.CacheConfig;
+import com.realestate.zoningupdate.dto.ParcelFeature;
+import com.realestate.zoningupdate.event.ZoningUpdatedEvent;
+import com.realestate.zoningupdate.exception.BusinessException;
+import com.realestate.zoningupdate.repository.ParcelRepository;
+import com.realestate.zoningupdate.util.TileMath;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import no.ecc.vectortile.VectorTileEncoder;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds Mapbox Vector Tiles (MVT) for parcels.
+ * Tiles are addressed by z/x/y, so unlike arbitrary bounds they can be cached
+ * and shared between all clients viewing the same area. Once a zoning update commits,
+ * only the cached tiles overlapping the changed parcels are evicted, and a tile encoded
+ * while that happened is not kept.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VectorTileService {
+
+    public static final String PARCEL_LAYER = "parcels";
+
+    // Standard MVT extent and a small buffer so polygon edges render seamlessly across tiles
+    private static final int TILE_EXTENT = 4096;
+    private static final int CLIP_BUFFER = 64;
+
+    // Updates touching more tiles than this clear the whole cache instead
+    private static final int MAX_EVICTED_TILES = 10_000;
+
+    private final ParcelRepository parcelRepository;
+    private final ParcelSpatialIndex spatialIndex;
+    private final ParcelGeometrySimplifier geometrySimplifier;
+    private final CacheManager cacheManager;
+
+    // Incremented before every eviction, so tile encodings can tell whether one overlapped them
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Value("${app.map.tiles.min-zoom:12}")
+    private int minZoom;
+
+    /**
+     * Get the parcel vector tile for the given tile address.
+     * Tiles below the configured minimum zoom are returned empty, as they would
+     * contain too many parcels to be useful.
+     *
+     * @param z Tile zoom level
+     * @param x Tile column
+     * @param y Tile row
+     * @return Encoded MVT bytes (empty tile if there are no parcels)
+     * @throws BusinessException if the tile address is invalid
+     */
+    public byte[] getParcelTile(int z, int x, int y) {
+        if (!TileMath.isValidTile(z, x, y)) {
+            throw new BusinessException(String.format("Invalid tile address %d/%d/%d", z, x, y));
+        }
+
+        Cache cache = cacheManager.getCache(CacheConfig.TILE_CACHE);
+        if (cache == null) {
+            return encodeTile(z, x, y);
+        }
+        List<Integer> key = List.of(z, x, y);
+        byte[] cached = cache.get(key, byte[].class);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = evictions.get();
+        byte[] tile = encodeTile(z, x, y);
+        cache.put(key, tile);
+        if (evictions.get() != generation) {
+            // A zoning update committed while the tile was encoded and the cache may
+            // already have been cleared, so the stored tile could predate it
+            cache.evict(key);
+        }
+        return tile;
+    }
+
+    /**
+     * Evict the cached tiles whose buffered area overlaps a parcel whose zoning changed.
+     * Runs after the spatial index has applied the update, so tiles encoded from then on
+     * see the new zoning.
+     */
+    @TransactionalEventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onZoningUpdated(ZoningUpdatedEvent event) {
+        Cache cache = cacheManager.getCache(CacheConfig.TILE_CACHE);
+        if (cache == null || event.getParcelIds().isEmpty()) {
+            return;
+        }
+        evictions.incrementAndGet();
+
+        try {
+            Set<List<Integer>> keys = new HashSet<>();
+            for (Object[] envelope : parcelRepository.findEnvelopes(event.getParcelIds().toArray(new Integer[0]))) {
+                if (!addTileKeys(keys, ((Number) envelope[0]).doubleValue(), ((Number) envelope[1]).doubleValue(),
+                        ((Number) envelope[2]).doubleValue(), ((Number) envelope[3]).doubleValue())) {
+                    cache.clear();
+                    log.debug("Cleared tile cache after zoning update of {} parcels", event.getParcelIds().size());
+                    return;
+                }
+            }
+            keys.forEach(cache::evict);
+            log.debug("Evicted {} tiles for {} updated parcels", keys.size(), event.getParcelIds().size());
+        } catch (Exception e) {
+            // Fall back to dropping every tile rather than serving stale zoning
+            log.error("Failed to evict updated tiles, clearing the tile cache", e);
+            cache.clear();
+        }
+    }
+
+    /**
+     * Add the keys of every tile from the minimum zoom up whose envelope, grown by the
+     * clip buffer, overlaps the given bounds. Lower zooms are always empty.
+     *
+     * @return false, leaving the keys incomplete, if they would exceed MAX_EVICTED_TILES
+     */
+    private boolean addTileKeys(Set<List<Integer>> keys, double west, double south, double east, double north) {
+        double buffer = (double) CLIP_BUFFER / TILE_EXTENT;
+        for (int z = Math.max(minZoom, 0); z <= TileMath.MAX_ZOOM; z++) {
+            int maxTile = (1 << z) - 1;
+            int minX = Math.max((int) Math.floor(TileMath.lonToTileX(west, z) - buffer), 0);
+            int maxX = Math.min((int) Math.floor(TileMath.lonToTileX(east, z) + buffer), maxTile);
+            // Tile rows grow southwards
+            int minY = Math.max((int) Math.floor(TileMath.latToTileY(north, z) - buffer), 0);
+            int maxY = Math.min((int) Math.floor(TileMath.latToTileY(south, z) + buffer), maxTile);
+            if (keys.size() + (long) (maxX - minX + 1) * (maxY - minY + 1) > MAX_EVICTED_TILES) {
+                return false;
+            }
+            for (int x = minX; x <= maxX; x++) {
+                for (int y = minY; y <= maxY; y++) {
+                    // Must match the key of getParcelTile
+                    keys.add(List.of(z, x, y));
+                }
+            }
+        }
+        return true;
+    }
+
+    private byte[] encodeTile(int z, int x, int y) {
+        VectorTileEncoder encoder = new VectorTileEncoder(TILE_EXTENT, CLIP_BUFFER, false);
+
+        if (z < minZoom) {
+            log.debug("Tile {}/{}/{} is below minimum zoom {}, returning empty tile", z, x, y, minZoom);
+            return encoder.encode();
+        }
+
+        // Include parcels in the clip buffer so clipped edges line up with neighbouring tiles
+        Envelope envelope = TileMath.tileEnvelope(z, x, y, (double) CLIP_BUFFER / TILE_EXTENT);
+        List<ParcelFeature> parcels = spatialIndex.isReady()
+                ? spatialIndex.findByBounds(envelope.getMinX(), envelope.getMinY(), envelope.getMaxX(), envelope.getMaxY())
+                : parcelRepository.findFeaturesByBounds(envelope.getMinX(), envelope.getMinY(), envelope.getMaxX(), envelope.getMaxY());
+
+        for (ParcelFeature parcel : parcels) {
+            if (parcel.getGeom() == null) {
+                continue;
+            }
+            // Detail finer than a pixel at this zoom is dropped before projecting
+            Geometry tileGeometry = TileMath.toTilePixels(geometrySimplifier.simplify(parcel, z), z, x, y, TILE_EXTENT);
+            encoder.addFeature(PARCEL_LAYER, tileAttributes(parcel), tileGeometry, parcel.getId());
+        }
+
+        byte[] tile = encoder.encode();
+        log.info("Encoded tile {}/{}/{} with {} parcels ({} bytes)", z, x, y, parcels.size(), tile.length);
+        return tile;
+    }
+
+    private Map<String, Object> tileAttributes(ParcelFeature parcel) {
+        // MVT has no null values, so only add attributes that are present
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("id", parcel.getId());
+        putIfPresent(attributes, "name", parcel.getName());
+        putIfPresent(attributes, "zoning", parcel.getZoning());
+        putIfPresent(attributes, "zoning_typ", parcel.getZoningType());
+        putIfPresent(attributes, "zoning_sub", parcel.getZoningSub());
+        return attributes;
+    }
+
+    private void putIfPresent(Map<String, Object> attributes, String key, String value) {
+        if (value != null) {
+            attributes.put(key, value);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.realestate.zoningupdate.service;
+
+import com.realestate.zoningupdate.dto.ZoningChange;
+import com.realestate.zoningupdate.event.ZoningUpdatedEvent;
+import com.realestate.zoningupdate.repository.ParcelRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Parcel counts per zoning type, kept in memory.
+ *
+ * Counts are loaded with one GROUP BY at startup and then adjusted by the previous and
+ * new zoning of every committed update, so statistics requests do not touch the database.
+ * The counters are striped (LongAdder), so concurrent updates do not contend on them.
+ * A periodic reconcile reloads the counts from the database to correct any drift, such
+ * as rows changed outside the application or an update racing the reconcile itself.
+ * Disable with app.statistics.live.enabled=false.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ZoningStatistics {
+
+    private static final String UNKNOWN_ZONING = "Unknown";
+
+    private final ParcelRepository parcelRepository;
+
+    @Value("${app.statistics.live.enabled:true}")
+    private boolean enabled;
+
+    private volatile ConcurrentMap<String, LongAdder> counts = new ConcurrentHashMap<>();
+    private volatile boolean ready = false;
+
+    /**
+     * Whether statistics can be answered from memory
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Load the counts once the application has started
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            log.info("Live zoning statistics are disabled");
+            return;
+        }
+        reconcile();
+    }
+
+    /**
+     * Replace the counters with fresh counts from the database
+     */
+    @Scheduled(fixedDelayString = "${app.statistics.live.reconcile-interval-ms:300000}",
+            initialDelayString = "${app.statistics.live.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            ConcurrentMap<String, LongAdder> loaded = new ConcurrentHashMap<>();
+            for (Object[] row : parcelRepository.countParcelsByZoningType()) {
+                counter(loaded, (String) row[0]).add(((Number) row[1]).longValue());
+            }
+
+            Map<String, Long> previous = ready ? getCounts() : null;
+            counts = loaded;
+            ready = true;
+
+            if (previous != null && !previous.equals(getCounts())) {
+                log.info("Reconciled zoning statistics, counts drifted from {} to {}", previous, getCounts());
+            } else {
+                log.debug("Reconciled zoning statistics: {}", getCounts());
+            }
+        } catch (Exception e) {
+            log.error("Failed to load zoning statistics, keeping the current counts", e);
+        }
+    }
+
+    /**
+     * Get the current parcel count per zoning type
+     *
+     * @return Map of zoning type to count, without empty types
+     */
+    public Map<String, Long> getCounts() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counts.forEach((type, count) -> {
+            long value = count.sum();
+            if (value > 0) {
+                snapshot.put(type, value);
+            }
+        });
+        return snapshot;
+    }
+
+    /**
+     * Move each updated parcel from its previous zoning type to the new one
+     */
+    @TransactionalEventListener
+    public void onZoningUpdated(ZoningUpdatedEvent event) {
+        if (!isReady() || event.getChanges() == null) {
+            return;
+        }
+        ConcurrentMap<String, LongAdder> current = counts;
+        LongAdder target = counter(current, event.getZoningType());
+        List<ZoningChange> changes = event.getChanges();
+        for (ZoningChange change : changes) {
+            counter(current, change.getPreviousType()).decrement();
+            target.increment();
+        }
+    }
+
+    private static LongAdder counter(ConcurrentMap<String, LongAdder> counts, String zoningType) {
+        return counts.computeIfAbsent(zoningType != null ? zoningType : UNKNOWN_ZONING, key -> new LongAdder());
+    }
+}
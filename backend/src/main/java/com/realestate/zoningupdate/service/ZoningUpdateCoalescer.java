@@ -0,0 +1,193 @@
+package com.realestate.zoningupdate.service;
+
+import com.realestate.zoningupdate.dto.ZoningChange;
+import com.realestate.zoningupdate.dto.ZoningUpdateRequest;
+import com.realestate.zoningupdate.event.ZoningUpdatedEvent;
+import com.realestate.zoningupdate.exception.ResourceNotFoundException;
+import com.realestate.zoningupdate.exception.ZoningUpdateException;
+import com.realestate.zoningupdate.repository.ParcelRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Merges small zoning updates that arrive at the same time into one transaction.
+ *
+ * The first request for a zoning type and sub-type opens a batch and waits
+ * app.zoning.coalesce.window-ms for others with the same target zoning to join it,
+ * then runs the whole batch as one lock statement and one UPDATE ... RETURNING.
+ * Each request is still validated on its own: a request naming missing parcels fails
+ * without touching its parcels, while the rest of the batch is applied.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ZoningUpdateCoalescer {
+
+    private final ParcelRepository parcelRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.zoning.coalesce.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.zoning.coalesce.window-ms:5}")
+    private long windowMs;
+
+    @Value("${app.zoning.coalesce.max-request-parcels:500}")
+    private int maxRequestParcels;
+
+    @Value("${app.zoning.coalesce.max-batch-parcels:5000}")
+    private int maxBatchParcels;
+
+    // Open batches by target zoning type and sub-type, guarded by itself
+    private final Map<List<String>, Batch> openBatches = new HashMap<>();
+
+    private static class Batch {
+        private final List<Pending> requests = new ArrayList<>();
+        private int parcelCount;
+    }
+
+    private record Pending(List<Integer> parcelIds, CompletableFuture<List<ZoningChange>> result) {
+    }
+
+    /**
+     * Whether a request is small enough to be coalesced
+     */
+    public boolean accepts(ZoningUpdateRequest request) {
+        return enabled && request.getParcelIds().size() <= maxRequestParcels;
+    }
+
+    /**
+     * Apply a request as part of a batch and wait for its own result
+     *
+     * @param request A validated request accepted by {@link #accepts}
+     * @return Previous zoning of the request's parcels
+     * @throws ResourceNotFoundException if none of the request's parcels exist
+     * @throws ZoningUpdateException if some of the request's parcels do not exist
+     */
+    public List<ZoningChange> update(ZoningUpdateRequest request) {
+        List<String> key = List.of(request.getZoningType(), request.getZoningSubType());
+        Pending pending = new Pending(request.getParcelIds(), new CompletableFuture<>());
+        int size = request.getParcelIds().size();
+
+        Batch batch;
+        boolean leader = false;
+        synchronized (openBatches) {
+            batch = openBatches.get(key);
+            if (batch == null || batch.parcelCount + size > maxBatchParcels) {
+                // A full batch is left to its leader and no longer accepts requests
+                batch = new Batch();
+                openBatches.put(key, batch);
+                leader = true;
+            }
+            batch.requests.add(pending);
+            batch.parcelCount += size;
+        }
+
+        if (leader) {
+            try {
+                Thread.sleep(windowMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (openBatches) {
+                openBatches.remove(key, batch);
+            }
+            execute(request.getZoningType(), request.getZoningSubType(), batch.requests);
+        }
+
+        try {
+            return pending.result().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ZoningUpdateException("Interrupted while waiting for the zoning update", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new ZoningUpdateException("Failed to update zoning", e.getCause());
+        }
+    }
+
+    private void execute(String zoningType, String zoningSubType, List<Pending> requests) {
+        TransactionTemplate updateTransaction = new TransactionTemplate(transactionManager);
+        updateTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+
+        try {
+            Map<Pending, List<ZoningChange>> results = updateTransaction.execute(status -> {
+                Set<Integer> requestedIds = new LinkedHashSet<>();
+                requests.forEach(pending -> requestedIds.addAll(pending.parcelIds()));
+                Set<Integer> existingIds = new HashSet<>(
+                        parcelRepository.lockExistingIds(requestedIds.toArray(new Integer[0])));
+
+                // Reject requests naming missing parcels before anything is updated
+                List<Pending> accepted = new ArrayList<>();
+                Set<Integer> updateIds = new LinkedHashSet<>();
+                for (Pending pending : requests) {
+                    // Repeated ids count once, so requests with duplicates are rejected like chunked updates
+                    long found = pending.parcelIds().stream().distinct().filter(existingIds::contains).count();
+                    if (found == 0) {
+                        pending.result().completeExceptionally(
+                                new ResourceNotFoundException("None of the specified parcels were found"));
+                    } else if (found != pending.parcelIds().size()) {
+                        pending.result().completeExceptionally(new ZoningUpdateException(String.format(
+                                "Partial update: requested to update %d parcels but only %d were found",
+                                pending.parcelIds().size(), found)));
+                    } else {
+                        accepted.add(pending);
+                        updateIds.addAll(pending.parcelIds());
+                    }
+                }
+
+                Map<Pending, List<ZoningChange>> byRequest = new HashMap<>();
+                if (accepted.isEmpty()) {
+                    return byRequest;
+                }
+
+                List<ZoningChange> changes = parcelRepository.updateZoningReturningPrevious(
+                        new ArrayList<>(updateIds), zoningType, zoningSubType);
+                Map<Integer, ZoningChange> byId = new HashMap<>();
+                changes.forEach(change -> byId.put(change.getParcelId(), change));
+
+                for (Pending pending : accepted) {
+                    List<ZoningChange> own = new ArrayList<>();
+                    pending.parcelIds().forEach(id -> own.add(byId.get(id)));
+                    byRequest.put(pending, own);
+                }
+
+                eventPublisher.publishEvent(new ZoningUpdatedEvent(
+                        new ArrayList<>(updateIds), zoningType, zoningSubType, changes));
+                return byRequest;
+            });
+
+            // Results are handed out only after the batch has committed
+            results.forEach((pending, changes) -> pending.result().complete(changes));
+            log.debug("Coalesced {} zoning updates into one transaction ({} applied)",
+                    requests.size(), results.size());
+        } catch (RuntimeException e) {
+            requests.forEach(pending -> pending.result().completeExceptionally(e));
+        } finally {
+            // Callers wait without a timeout, so none may be left incomplete, e.g. after an Error
+            if (requests.stream().anyMatch(pending -> !pending.result().isDone())) {
+                ZoningUpdateException incomplete = new ZoningUpdateException("Zoning update batch did not complete");
+                requests.forEach(pending -> pending.result().completeExceptionally(incomplete));
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.realestate.zoningupdate.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.realestate.zoningupdate.dto.ZoningUpdateJob;
+import com.realestate.zoningupdate.dto.ZoningUpdateRequest;
+import com.realestate.zoningupdate.exception.ResourceNotFoundException;
+import com.realestate.zoningupdate.exception.ServiceBusyException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs zoning updates in the background so large rezonings do not hold a request
+ * thread for their whole duration.
+ *
+ * Jobs run on a fixed pool of app.zoning.jobs.threads workers with at most
+ * app.zoning.jobs.queue-capacity jobs waiting; submissions beyond that are rejected
+ * rather than queued without bound. Job status is kept in memory while the job is
+ * queued or running and for app.zoning.jobs.retention-minutes after it finishes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ZoningUpdateJobService {
+
+    private final ParcelService parcelService;
+
+    @Value("${app.zoning.jobs.threads:2}")
+    private int threads;
+
+    @Value("${app.zoning.jobs.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${app.zoning.jobs.retention-minutes:60}")
+    private long retentionMinutes;
+
+    @Value("${app.zoning.jobs.shutdown-timeout-seconds:30}")
+    private long shutdownTimeoutSeconds;
+
+    private ThreadPoolExecutor executor;
+    private Cache<String, ZoningUpdateJob> jobs;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "zoning-update-" + threadNumber.incrementAndGet()));
+        long retentionNanos = Duration.ofMinutes(retentionMinutes).toNanos();
+        jobs = Caffeine.newBuilder()
+                .expireAfter(new Expiry<String, ZoningUpdateJob>() {
+                    @Override
+                    public long expireAfterCreate(String id, ZoningUpdateJob job, long currentTime) {
+                        return retentionAfter(job);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String id, ZoningUpdateJob job, long currentTime,
+                                                  long currentDuration) {
+                        return retentionAfter(job);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String id, ZoningUpdateJob job, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    private long retentionAfter(ZoningUpdateJob job) {
+                        // Unfinished jobs must stay visible to pollers however long they take
+                        return job.getFinishedAt() != null ? retentionNanos : Long.MAX_VALUE;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Let running jobs finish before the application context is closed
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(shutdownTimeoutSeconds, TimeUnit.SECONDS)) {
+            log.warn("Zoning update jobs did not finish within {} s", shutdownTimeoutSeconds);
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Queue a zoning update and return immediately
+     *
+     * @param request The zoning update request
+     * @return The queued job
+     * @throws ServiceBusyException if the job queue is full
+     */
+    public ZoningUpdateJob submit(ZoningUpdateRequest request) {
+        ZoningUpdateJob job = new ZoningUpdateJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setStatus(ZoningUpdateJob.Status.QUEUED);
+        job.setZoningType(request.getZoningType());
+        job.setZoningSubType(request.getZoningSubType());
+        job.setUsername(request.getUsername());
+        job.setCommitMode(request.getCommitMode());
+        job.setTotalParcels(request.getParcelIds().size());
+        job.setSubmittedAt(LocalDateTime.now());
+        jobs.put(job.getId(), job);
+
+        try {
+            executor.execute(() -> run(job, request));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(job.getId());
+            log.warn("Rejected zoning update for {} parcels, job queue is full", job.getTotalParcels());
+            throw new ServiceBusyException("Too many zoning updates in progress. Please try again later.", e);
+        }
+
+        log.info("Queued zoning update job {} for {} parcels", job.getId(), job.getTotalParcels());
+        return job;
+    }
+
+    /**
+     * Get the status of a job
+     *
+     * @param id Job ID returned by submit
+     * @return The job
+     * @throws ResourceNotFoundException if the job does not exist or has expired
+     */
+    public ZoningUpdateJob getJob(String id) {
+        ZoningUpdateJob job = jobs.getIfPresent(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Zoning update job", "id", id);
+        }
+        return job;
+    }
+
+    private void run(ZoningUpdateJob job, ZoningUpdateRequest request) {
+        job.setStatus(ZoningUpdateJob.Status.RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        try {
+            parcelService.updateZoning(request, (processed, total) -> job.setProcessedParcels(processed));
+            job.setCommitMode(request.getCommitMode());
+            job.setProcessedParcels(job.getTotalParcels());
+            job.setStatus(ZoningUpdateJob.Status.SUCCEEDED);
+            log.info("Zoning update job {} finished", job.getId());
+        } catch (Exception e) {
+            job.setCommitMode(request.getCommitMode());
+            if (request.getCommitMode() != ZoningUpdateRequest.CommitMode.PER_CHUNK) {
+                // The whole request was rolled back
+                job.setProcessedParcels(0);
+            }
+            job.setError(e.getMessage() != null ? e.getMessage() : "Unknown error");
+            job.setStatus(ZoningUpdateJob.Status.FAILED);
+            log.warn("Zoning update job {} failed: {}", job.getId(), e.getMessage());
+        } finally {
+            job.setFinishedAt(LocalDateTime.now());
+            // Start the retention period now that the job has finished
+            jobs.put(job.getId(), job);
+        }
+    }
+}
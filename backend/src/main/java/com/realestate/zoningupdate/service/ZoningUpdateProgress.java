@@ -0,0 +1,17 @@
+package com.realestate.zoningupdate.service;
+
+/**
+ * Receives progress of a chunked zoning update
+ */
+@FunctionalInterface
+public interface ZoningUpdateProgress {
+
+    /**
+     * Called after each chunk has been applied. With ALL_OR_NOTHING the chunk is
+     * not committed until the last one has been applied.
+     *
+     * @param processedParcels Parcels applied so far
+     * @param totalParcels Parcels in the request
+     */
+    void onChunkApplied(int processedParcels, int totalParcels);
+}
@@ -1,27 +1,35 @@
 package com.realestate.zoningupdate.util;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.realestate.zoningupdate.dto.ParcelDTO;
-import com.realestate.zoningupdate.model.Parcel;
+import com.realestate.zoningupdate.dto.ParcelFeature;
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.LineString;
 import org.locationtech.jts.geom.Polygon;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public class GeoJSONConverter {
 
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
-    public static Map<String, Object> convertToGeoJSON(List<Parcel> parcels) {
+    public static Map<String, Object> convertToGeoJSON(List<ParcelFeature> parcels) {
         Map<String, Object> featureCollection = new HashMap<>();
         featureCollection.put("type", "FeatureCollection");
 
         List<Map<String, Object>> features = new ArrayList<>();
 
-        for (Parcel parcel : parcels) {
+        for (ParcelFeature parcel : parcels) {
             Map<String, Object> feature = new HashMap<>();
             feature.put("type", "Feature");
 
@@ -29,11 +37,11 @@ public class GeoJSONConverter {
             properties.put("id", parcel.getId());
             properties.put("name", parcel.getName());
             properties.put("owner", parcel.getOwner());
-            properties.put("mail_city", parcel.getMail_city());
-            properties.put("mail_zip", parcel.getMail_zip());
+            properties.put("mail_city", parcel.getMailCity());
+            properties.put("mail_zip", parcel.getMailZip());
             properties.put("zoning", parcel.getZoning());
-            properties.put("zoning_sub", parcel.getZoning_sub());
-            properties.put("zoning_typ", parcel.getZoning_typ());
+            properties.put("zoning_sub", parcel.getZoningSub());
+            properties.put("zoning_typ", parcel.getZoningType());
             properties.put("mailadd", parcel.getMailadd());
 
             feature.put("properties", properties);
@@ -46,6 +54,113 @@ public class GeoJSONConverter {
         return featureCollection;
     }
 
+    /**
+     * Write parcel features as a GeoJSON FeatureCollection directly to the output stream.
+     * Features are written one at a time as the stream is consumed, so memory use
+     * does not grow with the number of parcels and bytes are sent as soon as the
+     * first feature is available.
+     *
+     * @param parcels Stream of parcel features to write
+     * @param out     Target output stream (left open)
+     * @return Number of features written
+     * @throws IOException if writing to the output stream fails
+     */
+    public static int writeGeoJSON(Stream<ParcelFeature> parcels, OutputStream out) throws IOException {
+        return writeGeoJSON(parcels, ParcelFeature::getGeom, out);
+    }
+
+    /**
+     * Write parcels as a GeoJSON FeatureCollection, taking each feature's geometry
+     * from the supplied function instead of the parcel itself. Used to serve
+     * simplified geometries at lower zoom levels.
+     *
+     * @param parcels  Stream of parcel features to write
+     * @param geometry Function returning the polygon to write for a parcel
+     * @param out      Target output stream (left open)
+     * @return Number of features written
+     * @throws IOException if writing to the output stream fails
+     */
+    public static int writeGeoJSON(Stream<ParcelFeature> parcels, Function<ParcelFeature, Polygon> geometry,
+                                   OutputStream out) throws IOException {
+        int count = 0;
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
+            generator.writeStartObject();
+            generator.writeStringField("type", "FeatureCollection");
+            generator.writeArrayFieldStart("features");
+
+            Iterator<ParcelFeature> iterator = parcels.iterator();
+            while (iterator.hasNext()) {
+                ParcelFeature parcel = iterator.next();
+                writeFeature(generator, parcel, geometry.apply(parcel));
+                count++;
+            }
+
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+
+        return count;
+    }
+
+    private static void writeFeature(JsonGenerator generator, ParcelFeature parcel, Polygon geometry) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "Feature");
+
+        generator.writeObjectFieldStart("properties");
+        generator.writeFieldName("id");
+        if (parcel.getId() != null) {
+            generator.writeNumber(parcel.getId());
+        } else {
+            generator.writeNull();
+        }
+        generator.writeStringField("name", parcel.getName());
+        generator.writeStringField("owner", parcel.getOwner());
+        generator.writeStringField("mail_city", parcel.getMailCity());
+        generator.writeStringField("mail_zip", parcel.getMailZip());
+        generator.writeStringField("zoning", parcel.getZoning());
+        generator.writeStringField("zoning_sub", parcel.getZoningSub());
+        generator.writeStringField("zoning_typ", parcel.getZoningType());
+        generator.writeStringField("mailadd", parcel.getMailadd());
+        generator.writeEndObject();
+
+        generator.writeFieldName("geometry");
+        writePolygon(generator, geometry);
+
+        generator.writeEndObject();
+    }
+
+    private static void writePolygon(JsonGenerator generator, Polygon polygon) throws IOException {
+        // Empty polygons have no exterior ring; the binary encoding writes them as null too
+        if (polygon == null || polygon.isEmpty()) {
+            generator.writeNull();
+            return;
+        }
+
+        generator.writeStartObject();
+        generator.writeStringField("type", "Polygon");
+        generator.writeArrayFieldStart("coordinates");
+        writeRing(generator, polygon.getExteriorRing());
+        for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+            writeRing(generator, polygon.getInteriorRingN(i));
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private static void writeRing(JsonGenerator generator, LineString ring) throws IOException {
+        generator.writeStartArray();
+        for (Coordinate coord : ring.getCoordinates()) {
+            generator.writeStartArray();
+            generator.writeNumber(coord.x);
+            generator.writeNumber(coord.y);
+            generator.writeEndArray();
+        }
+        generator.writeEndArray();
+    }
+
     private static Map<String, Object> convertPolygonToGeoJSON(Polygon polygon) {
         if (polygon == null) {
             return null;
@@ -54,34 +169,40 @@ public class GeoJSONConverter {
         Map<String, Object> geometry = new HashMap<>();
         geometry.put("type", "Polygon");
 
+        // The exterior ring comes first, followed by any holes
         List<List<List<Double>>> coordinates = new ArrayList<>();
-        List<List<Double>> ring = new ArrayList<>();
+        coordinates.add(convertRing(polygon.getExteriorRing()));
+        for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+            coordinates.add(convertRing(polygon.getInteriorRingN(i)));
+        }
+        geometry.put("coordinates", coordinates);
 
-        for (Coordinate coord : polygon.getExteriorRing().getCoordinates()) {
+        return geometry;
+    }
+
+    private static List<List<Double>> convertRing(LineString ring) {
+        List<List<Double>> points = new ArrayList<>();
+        for (Coordinate coord : ring.getCoordinates()) {
             List<Double> point = new ArrayList<>();
             point.add(coord.x);
             point.add(coord.y);
-            ring.add(point);
+            points.add(point);
         }
-
-        coordinates.add(ring);
-        geometry.put("coordinates", coordinates);
-
-        return geometry;
+        return points;
     }
 
-    public static ParcelDTO convertToDTO(Parcel parcel) {
+    public static ParcelDTO convertToDTO(ParcelFeature parcel) {
         ParcelDTO dto = new ParcelDTO();
         dto.setId(parcel.getId());
         dto.setName(parcel.getName());
         dto.setOwner(parcel.getOwner());
-        dto.setMailCity(parcel.getMail_city());
-        dto.setMailZip(parcel.getMail_zip());
+        dto.setMailCity(parcel.getMailCity());
+        dto.setMailZip(parcel.getMailZip());
         dto.setMailadd(parcel.getMailadd());
         dto.setParcelnumb(parcel.getParcelnumb());
         dto.setZoning(parcel.getZoning());
-        dto.setZoningSub(parcel.getZoning_sub());
-        dto.setZoningType(parcel.getZoning_typ());
+        dto.setZoningSub(parcel.getZoningSub());
+        dto.setZoningType(parcel.getZoningType());
         dto.setGeometry(convertPolygonToGeoJSON(parcel.getGeom()));
 
         return dto;
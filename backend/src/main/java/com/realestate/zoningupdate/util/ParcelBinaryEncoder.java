@@ -0,0 +1,201 @@
+package com.realestate.zoningupdate.util;
+
+import com.realestate.zoningupdate.dto.ParcelFeature;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Polygon;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes parcels in a compact binary encoding, served as an alternative to GeoJSON
+ * for large viewports.
+ *
+ * Layout (all integers are unsigned LEB128 varints, signed values are zigzag encoded):
+ * <pre>
+ * header   := "ZPCL" version:u8 precision:varint propertyCount:varint (length:varint utf8)*
+ * record   := STRING | FEATURE | END
+ * STRING   := 0x01 length:varint utf8          -- appends to the string dictionary
+ * FEATURE  := 0x02 idDelta:zigzag value{propertyCount} ringCount:varint ring*
+ * value    := 0 (null) | 1 length:varint utf8 (inline) | n >= 2 (dictionary entry n - 2)
+ * ring     := pointCount:varint (dx:zigzag dy:zigzag){pointCount}
+ * END      := 0x00 featureCount:varint
+ * </pre>
+ * Coordinates are quantized to 10^-precision degrees and delta-encoded against the
+ * previous point written, across rings and features. Rings omit their closing point.
+ */
+public class ParcelBinaryEncoder {
+
+    public static final String MEDIA_TYPE = "application/vnd.zoning.parcels+binary";
+
+    public static final String[] PROPERTY_NAMES = {
+            "name", "owner", "mail_city", "mail_zip", "mailadd", "zoning", "zoning_sub", "zoning_typ"
+    };
+
+    private static final byte[] MAGIC = {'Z', 'P', 'C', 'L'};
+    private static final int VERSION = 1;
+
+    private static final int TAG_END = 0x00;
+    private static final int TAG_STRING = 0x01;
+    private static final int TAG_FEATURE = 0x02;
+
+    private static final int VALUE_NULL = 0;
+    private static final int VALUE_INLINE = 1;
+    private static final int VALUE_DICTIONARY_OFFSET = 2;
+
+    // About 0.1m at the equator, well below what a parcel map can show
+    private static final int PRECISION = 6;
+
+    // Keeps memory bounded for high-cardinality values such as owner names
+    private static final int MAX_DICTIONARY_SIZE = 65536;
+
+    private final OutputStream out;
+    private final double scale;
+    private final Map<String, Integer> dictionary = new HashMap<>();
+
+    private long lastId = 0;
+    private long lastX = 0;
+    private long lastY = 0;
+    private int featureCount = 0;
+
+    private ParcelBinaryEncoder(OutputStream out, int precision) {
+        this.out = out;
+        this.scale = Math.pow(10, precision);
+    }
+
+    /**
+     * Write parcels in the binary encoding directly to the output stream.
+     *
+     * @param parcels  Stream of parcel features to write
+     * @param geometry Function returning the polygon to write for a parcel
+     * @param target   Target output stream (left open)
+     * @return Number of features written
+     * @throws IOException if writing to the output stream fails
+     */
+    public static int writeBinary(Stream<ParcelFeature> parcels, Function<ParcelFeature, Polygon> geometry,
+                                  OutputStream target) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(target, 8192);
+        ParcelBinaryEncoder encoder = new ParcelBinaryEncoder(buffered, PRECISION);
+
+        encoder.writeHeader();
+        Iterator<ParcelFeature> iterator = parcels.iterator();
+        while (iterator.hasNext()) {
+            ParcelFeature parcel = iterator.next();
+            encoder.writeFeature(parcel, geometry.apply(parcel));
+        }
+        encoder.writeEnd();
+
+        buffered.flush();
+        return encoder.featureCount;
+    }
+
+    private void writeHeader() throws IOException {
+        out.write(MAGIC);
+        out.write(VERSION);
+        writeVarint(PRECISION);
+        writeVarint(PROPERTY_NAMES.length);
+        for (String name : PROPERTY_NAMES) {
+            writeUtf8(name);
+        }
+    }
+
+    private void writeFeature(ParcelFeature parcel, Polygon geometry) throws IOException {
+        String[] values = {
+                parcel.getName(), parcel.getOwner(), parcel.getMailCity(), parcel.getMailZip(),
+                parcel.getMailadd(), parcel.getZoning(), parcel.getZoningSub(), parcel.getZoningType()
+        };
+
+        // Dictionary entries must be defined before the feature that references them
+        for (String value : values) {
+            if (value != null && !dictionary.containsKey(value) && dictionary.size() < MAX_DICTIONARY_SIZE) {
+                dictionary.put(value, dictionary.size());
+                out.write(TAG_STRING);
+                writeUtf8(value);
+            }
+        }
+
+        out.write(TAG_FEATURE);
+        long id = parcel.getId() != null ? parcel.getId() : 0;
+        writeSignedVarint(id - lastId);
+        lastId = id;
+
+        for (String value : values) {
+            writeValue(value);
+        }
+
+        if (geometry == null || geometry.isEmpty()) {
+            writeVarint(0);
+        } else {
+            writeVarint(1 + geometry.getNumInteriorRing());
+            writeRing(geometry.getExteriorRing());
+            for (int i = 0; i < geometry.getNumInteriorRing(); i++) {
+                writeRing(geometry.getInteriorRingN(i));
+            }
+        }
+
+        featureCount++;
+    }
+
+    private void writeValue(String value) throws IOException {
+        if (value == null) {
+            writeVarint(VALUE_NULL);
+            return;
+        }
+        Integer index = dictionary.get(value);
+        if (index != null) {
+            writeVarint(VALUE_DICTIONARY_OFFSET + index);
+        } else {
+            writeVarint(VALUE_INLINE);
+            writeUtf8(value);
+        }
+    }
+
+    private void writeRing(LineString ring) throws IOException {
+        Coordinate[] coordinates = ring.getCoordinates();
+        // Closed rings repeat the first point; the decoder closes them again
+        int pointCount = coordinates.length > 1 && coordinates[0].equals2D(coordinates[coordinates.length - 1])
+                ? coordinates.length - 1
+                : coordinates.length;
+
+        writeVarint(pointCount);
+        for (int i = 0; i < pointCount; i++) {
+            long x = Math.round(coordinates[i].x * scale);
+            long y = Math.round(coordinates[i].y * scale);
+            writeSignedVarint(x - lastX);
+            writeSignedVarint(y - lastY);
+            lastX = x;
+            lastY = y;
+        }
+    }
+
+    private void writeEnd() throws IOException {
+        out.write(TAG_END);
+        writeVarint(featureCount);
+    }
+
+    private void writeUtf8(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length);
+        out.write(bytes);
+    }
+
+    private void writeSignedVarint(long value) throws IOException {
+        writeVarint((value << 1) ^ (value >> 63));
+    }
+
+    private void writeVarint(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
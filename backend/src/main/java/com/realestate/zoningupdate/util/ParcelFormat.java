@@ -0,0 +1,81 @@
+package com.realestate.zoningupdate.util;
+
+import com.realestate.zoningupdate.dto.ParcelFeature;
+import org.locationtech.jts.geom.Polygon;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Response encodings supported by the parcel endpoints, selected from the Accept header.
+ */
+public enum ParcelFormat {
+
+    GEOJSON(MediaType.APPLICATION_JSON),
+    BINARY(MediaType.parseMediaType(ParcelBinaryEncoder.MEDIA_TYPE));
+
+    private final MediaType mediaType;
+
+    ParcelFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Negotiate the format from the Accept header. Media ranges are tried from the
+     * highest quality down, and the most specific first for equal quality. The binary
+     * encoding is picked only when the client names it explicitly, so existing clients
+     * that accept any media type keep receiving GeoJSON.
+     *
+     * @param accept Value of the Accept header, may be null
+     * @return The negotiated format
+     */
+    public static ParcelFormat fromAcceptHeader(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return GEOJSON;
+        }
+        try {
+            List<MediaType> requested = new ArrayList<>(MediaType.parseMediaTypes(accept));
+            // MediaType compares quality before specificity, so this orders by q first
+            MimeTypeUtils.sortBySpecificity(requested);
+            for (MediaType type : requested) {
+                if (type.getQualityValue() <= 0) {
+                    continue;
+                }
+                if (BINARY.mediaType.equalsTypeAndSubtype(type)) {
+                    return BINARY;
+                }
+                if (type.includes(GEOJSON.mediaType)) {
+                    return GEOJSON;
+                }
+            }
+        } catch (InvalidMediaTypeException | InvalidMimeTypeException e) {
+            // Fall back to the default format for malformed headers
+        }
+        return GEOJSON;
+    }
+
+    /**
+     * Write parcels to the output stream in this format
+     *
+     * @return Number of features written
+     */
+    public int write(Stream<ParcelFeature> parcels, Function<ParcelFeature, Polygon> geometry,
+                     OutputStream out) throws IOException {
+        return switch (this) {
+            case GEOJSON -> GeoJSONConverter.writeGeoJSON(parcels, geometry, out);
+            case BINARY -> ParcelBinaryEncoder.writeBinary(parcels, geometry, out);
+        };
+    }
+}
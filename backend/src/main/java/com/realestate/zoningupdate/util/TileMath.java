@@ -0,0 +1,99 @@
+package com.realestate.zoningupdate.util;
+
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFilter;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * Helper methods for converting between WGS84 longitude/latitude and
+ * Web Mercator z/x/y tile coordinates (slippy map tiles).
+ */
+public class TileMath {
+
+    // Latitude limit of the Web Mercator projection
+    private static final double MAX_LATITUDE = 85.05112878;
+
+    public static final int MAX_ZOOM = 22;
+
+    public static double lonToTileX(double lon, int zoom) {
+        return (lon + 180.0) / 360.0 * (1 << zoom);
+    }
+
+    public static double latToTileY(double lat, int zoom) {
+        double clamped = Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, lat));
+        double rad = Math.toRadians(clamped);
+        return (1.0 - Math.log(Math.tan(rad) + 1.0 / Math.cos(rad)) / Math.PI) / 2.0 * (1 << zoom);
+    }
+
+    public static double tileXToLon(double x, int zoom) {
+        return x / (1 << zoom) * 360.0 - 180.0;
+    }
+
+    public static double tileYToLat(double y, int zoom) {
+        double n = Math.PI * (1.0 - 2.0 * y / (1 << zoom));
+        return Math.toDegrees(Math.atan(Math.sinh(n)));
+    }
+
+    /**
+     * Check that the tile address exists at the given zoom level
+     */
+    public static boolean isValidTile(int zoom, int x, int y) {
+        if (zoom < 0 || zoom > MAX_ZOOM) {
+            return false;
+        }
+        int tiles = 1 << zoom;
+        return x >= 0 && x < tiles && y >= 0 && y < tiles;
+    }
+
+    /**
+     * Get the longitude/latitude envelope of a tile, optionally grown by a
+     * fraction of the tile size on every side.
+     *
+     * @param zoom   Tile zoom level
+     * @param x      Tile column
+     * @param y      Tile row (0 at the top)
+     * @param buffer Fraction of the tile size to add on each side
+     * @return Envelope as [west, east] x [south, north]
+     */
+    public static Envelope tileEnvelope(int zoom, int x, int y, double buffer) {
+        double west = tileXToLon(x - buffer, zoom);
+        double east = tileXToLon(x + 1 + buffer, zoom);
+        double north = tileYToLat(y - buffer, zoom);
+        double south = tileYToLat(y + 1 + buffer, zoom);
+        return new Envelope(west, east, south, north);
+    }
+
+    /**
+     * Project a longitude/latitude geometry into the local pixel space of a tile,
+     * where (0, 0) is the top-left corner and (extent, extent) the bottom-right.
+     *
+     * @param geometry Geometry in EPSG:4326
+     * @param zoom     Tile zoom level
+     * @param x        Tile column
+     * @param y        Tile row
+     * @param extent   Tile extent in pixels
+     * @return A projected copy of the geometry
+     */
+    public static Geometry toTilePixels(Geometry geometry, int zoom, int x, int y, int extent) {
+        Geometry projected = geometry.copy();
+        projected.apply(new CoordinateSequenceFilter() {
+            @Override
+            public void filter(CoordinateSequence seq, int i) {
+                seq.setOrdinate(i, CoordinateSequence.X, (lonToTileX(seq.getX(i), zoom) - x) * extent);
+                seq.setOrdinate(i, CoordinateSequence.Y, (latToTileY(seq.getY(i), zoom) - y) * extent);
+            }
+
+            @Override
+            public boolean isDone() {
+                return false;
+            }
+
+            @Override
+            public boolean isGeometryChanged() {
+                return true;
+            }
+        });
+        return projected;
+    }
+}
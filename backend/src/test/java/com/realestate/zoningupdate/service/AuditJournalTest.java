@@ -0,0 +1,116 @@
+package com.realestate.zoningupdate.service;
+
+import com.realestate.zoningupdate.dto.AuditLogEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuditJournalTest {
+
+    private final AuditJournal journal = new AuditJournal();
+    private final LocalDate today = LocalDate.now();
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ReflectionTestUtils.setField(journal, "auditLogDir", directory.resolve("audit").toString());
+        ReflectionTestUtils.setField(journal, "legacyLogFilePath", directory.resolve("audit-logs.json").toString());
+        ReflectionTestUtils.setField(journal, "retentionDays", 30);
+        journal.init();
+
+        // Three entries in each of three daily segments, numbered oldest first
+        List<AuditLogEntry> entries = new ArrayList<>();
+        for (int day = 2; day >= 0; day--) {
+            for (int i = 0; i < 3; i++) {
+                int number = (2 - day) * 3 + i + 1;
+                entries.add(new AuditLogEntry(today.minusDays(day).atTime(9, 0).plusMinutes(i),
+                        "UPDATE_ZONING", String.valueOf(number), number % 2 == 0 ? "bob" : "alice"));
+            }
+        }
+        journal.appendAll(entries);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        journal.close();
+    }
+
+    @Test
+    void pagesBackwardsAcrossSegments() {
+        List<String> seen = new ArrayList<>();
+        AuditJournal.Position before = null;
+        List<AuditJournal.PositionedEntry> page;
+        do {
+            page = journal.readNewestFirst(null, null, before, entry -> true, 2);
+            page.forEach(row -> seen.add(row.entry().getDetails()));
+            if (!page.isEmpty()) {
+                before = page.get(page.size() - 1).position();
+            }
+        } while (page.size() == 2);
+
+        assertThat(seen).containsExactly("9", "8", "7", "6", "5", "4", "3", "2", "1");
+    }
+
+    @Test
+    void startsJustBeforeThePosition() {
+        List<AuditJournal.PositionedEntry> page = journal.readNewestFirst(null, null,
+                new AuditJournal.Position(today.minusDays(1), 1), entry -> true, 3);
+
+        assertThat(details(page)).containsExactly("4", "3", "2");
+        assertThat(page.get(0).position()).isEqualTo(new AuditJournal.Position(today.minusDays(1), 0));
+        assertThat(page.get(1).position()).isEqualTo(new AuditJournal.Position(today.minusDays(2), 2));
+    }
+
+    @Test
+    void positionAtTheStartOfASegmentContinuesInTheDayBefore() {
+        List<AuditJournal.PositionedEntry> page = journal.readNewestFirst(null, null,
+                new AuditJournal.Position(today, 0), entry -> true, 10);
+
+        assertThat(details(page)).containsExactly("6", "5", "4", "3", "2", "1");
+    }
+
+    @Test
+    void filterAndUpperBoundAreApplied() {
+        List<AuditJournal.PositionedEntry> page = journal.readNewestFirst(null, today.minusDays(1).atTime(9, 2),
+                new AuditJournal.Position(today, 2), entry -> "alice".equals(entry.getUsername()), 10);
+
+        assertThat(details(page)).containsExactly("5", "3", "1");
+    }
+
+    @Test
+    void readRecentReturnsTheNewestEntriesOldestFirst() {
+        assertThat(journal.readRecent(4)).extracting(AuditLogEntry::getDetails)
+                .containsExactly("6", "7", "8", "9");
+    }
+
+    @Test
+    void failedWriteReopensTheSegmentForTheNextBatch() throws IOException {
+        // Simulate the open segment failing underneath the journal
+        ((FileChannel) ReflectionTestUtils.getField(journal, "currentChannel")).close();
+        AuditLogEntry first = new AuditLogEntry(today.atTime(10, 0), "UPDATE_ZONING", "lost", "alice");
+        AuditLogEntry second = new AuditLogEntry(today.atTime(10, 1), "UPDATE_ZONING", "10", "alice");
+
+        assertThatThrownBy(() -> journal.appendAll(List.of(first))).isInstanceOf(IOException.class);
+        journal.appendAll(List.of(second));
+
+        assertThat(journal.readRecent(2)).extracting(AuditLogEntry::getDetails).containsExactly("9", "10");
+    }
+
+    private static List<String> details(List<AuditJournal.PositionedEntry> page) {
+        return page.stream().map(row -> row.entry().getDetails()).toList();
+    }
+}
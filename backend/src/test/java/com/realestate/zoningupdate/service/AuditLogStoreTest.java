@@ -0,0 +1,88 @@
+package com.realestate.zoningupdate.service;
+
+import com.realestate.zoningupdate.dto.AuditLogEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditLogStoreTest {
+
+    private final AuditLogStore store = new AuditLogStore();
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(store, "maxEntries", 4);
+        ReflectionTestUtils.setField(store, "retentionDays", 30);
+    }
+
+    @Test
+    void keepsTheNewestEntriesBeforeCompacting() {
+        // One over the limit is below the compaction threshold, so the oldest is only hidden
+        store.addAll(entries(1, 5));
+
+        assertThat(details(store.findByAction("UPDATE_ZONING"))).containsExactly("2", "3", "4", "5");
+        assertThat(details(store.findByUsername("alice"))).containsExactly("3", "5");
+        assertThat(details(store.findByUsername("bob"))).containsExactly("2", "4");
+    }
+
+    @Test
+    void compactionKeepsIndexesConsistent() {
+        store.addAll(entries(1, 6));
+        store.addAll(entries(7, 9));
+
+        assertThat(details(store.findByAction("UPDATE_ZONING"))).containsExactly("6", "7", "8", "9");
+        assertThat(details(store.findByUsername("alice"))).containsExactly("7", "9");
+        assertThat(details(store.findByUsername("bob"))).containsExactly("6", "8");
+        assertThat(store.findByUsername("nobody")).isEmpty();
+    }
+
+    @Test
+    void hidesEntriesPastTheRetentionPeriod() {
+        List<AuditLogEntry> loaded = new ArrayList<>();
+        loaded.add(new AuditLogEntry(now.minusDays(40), "UPDATE_ZONING", "expired", "alice"));
+        loaded.add(new AuditLogEntry(now.minusDays(31), "UPDATE_ZONING", "expired", "bob"));
+        loaded.add(new AuditLogEntry(now.minusDays(2), "UPDATE_ZONING", "recent", "alice"));
+
+        store.load(loaded);
+
+        assertThat(details(store.findByAction("UPDATE_ZONING"))).containsExactly("recent");
+        assertThat(store.findByUsername("bob")).isEmpty();
+    }
+
+    @Test
+    void loadOrdersByTimestampAndSkipsEntriesWithoutOne() {
+        List<AuditLogEntry> loaded = new ArrayList<>(entries(1, 6));
+        loaded.add(new AuditLogEntry(null, "UPDATE_ZONING", "untimed", "alice"));
+        // Written out of order, e.g. by a batch that straddled a segment boundary
+        loaded.add(0, new AuditLogEntry(now.minusMinutes(1), "UPDATE_ZONING", "late", "alice"));
+
+        store.load(loaded);
+
+        assertThat(details(store.findByAction("UPDATE_ZONING"))).containsExactly("4", "5", "6", "late");
+        assertThat(details(store.findByUsername("alice"))).containsExactly("5", "late");
+    }
+
+    /**
+     * Entries numbered first to last, one minute apart from about two hours ago,
+     * alternating between bob (even) and alice (odd)
+     */
+    private List<AuditLogEntry> entries(int first, int last) {
+        List<AuditLogEntry> entries = new ArrayList<>();
+        for (int i = first; i <= last; i++) {
+            entries.add(new AuditLogEntry(now.minusHours(2).plusMinutes(i), "UPDATE_ZONING",
+                    String.valueOf(i), i % 2 == 0 ? "bob" : "alice"));
+        }
+        return entries;
+    }
+
+    private static List<String> details(List<AuditLogEntry> entries) {
+        return entries.stream().map(AuditLogEntry::getDetails).toList();
+    }
+}
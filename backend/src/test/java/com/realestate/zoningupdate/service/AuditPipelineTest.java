@@ -0,0 +1,78 @@
+package com.realestate.zoningupdate.service;
+
+import com.realestate.zoningupdate.dto.AuditLogEntry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class AuditPipelineTest {
+
+    private final AuditJournal auditJournal = mock(AuditJournal.class);
+    private final AuditLogStore auditLogStore = mock(AuditLogStore.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AuditPipeline pipeline = new AuditPipeline(auditJournal, auditLogStore, meterRegistry);
+
+    private final AuditLogEntry entry = new AuditLogEntry(LocalDateTime.now(), "UPDATE_ZONING", "1", "alice");
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(pipeline, "capacity", 10);
+        ReflectionTestUtils.setField(pipeline, "batchSize", 10);
+        ReflectionTestUtils.setField(pipeline, "overflowPolicy", AuditPipeline.OverflowPolicy.BLOCK);
+        ReflectionTestUtils.setField(pipeline, "shutdownTimeoutMs", 5000L);
+    }
+
+    @Test
+    void failedBatchIsRetriedOnce() throws Exception {
+        doThrow(new IOException("disk full")).doNothing().when(auditJournal).appendAll(anyList());
+
+        pipeline.start();
+        pipeline.submit(entry);
+        pipeline.stop();
+
+        // The writer reuses its batch list, so arguments cannot be compared after the fact
+        verify(auditJournal, times(2)).appendAll(anyList());
+        verify(auditLogStore).addAll(anyList());
+        assertThat(meterRegistry.get("zoning.audit.lost").functionCounter().count()).isZero();
+    }
+
+    @Test
+    void batchFailingTwiceIsCountedAsLost() throws Exception {
+        doThrow(new IOException("disk full")).when(auditJournal).appendAll(anyList());
+
+        pipeline.start();
+        pipeline.submit(entry);
+        pipeline.stop();
+
+        verify(auditJournal, times(2)).appendAll(anyList());
+        verify(auditLogStore, never()).addAll(anyList());
+        assertThat(meterRegistry.get("zoning.audit.lost").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void storeFailureDoesNotRewriteTheJournal() throws Exception {
+        doNothing().when(auditJournal).appendAll(anyList());
+        doThrow(new IllegalStateException("simulated")).when(auditLogStore).addAll(anyList());
+
+        pipeline.start();
+        pipeline.submit(entry);
+        pipeline.stop();
+
+        verify(auditJournal, times(1)).appendAll(anyList());
+        assertThat(meterRegistry.get("zoning.audit.lost").functionCounter().count()).isZero();
+    }
+}
@@ -0,0 +1,45 @@
+package com.realestate.zoningupdate.service;
+
+import com.realestate.zoningupdate.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuditServiceTest {
+
+    @Test
+    void cursorRoundTrips() {
+        for (AuditJournal.Position position : new AuditJournal.Position[]{
+                new AuditJournal.Position(LocalDate.of(2024, 1, 1), 0),
+                new AuditJournal.Position(LocalDate.of(2025, 12, 31), 41),
+                new AuditJournal.Position(LocalDate.of(2026, 2, 28), Integer.MAX_VALUE)}) {
+            String cursor = AuditService.encodeCursor(position);
+            assertThat(cursor).matches("[A-Za-z0-9_-]+");
+            assertThat(AuditService.decodeCursor(cursor)).isEqualTo(position);
+        }
+    }
+
+    @Test
+    void missingCursorStartsAtTheNewestEntry() {
+        assertThat(AuditService.decodeCursor(null)).isNull();
+        assertThat(AuditService.decodeCursor("")).isNull();
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThatThrownBy(() -> AuditService.decodeCursor("not a cursor!"))
+                .isInstanceOf(BusinessException.class);
+        for (String value : new String[]{"2024-01-01", "2024-13-01:5", "2024-01-01:x", "2024-01-01:-1", ":3"}) {
+            String cursor = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+            assertThatThrownBy(() -> AuditService.decodeCursor(cursor))
+                    .as(value)
+                    .isInstanceOf(BusinessException.class);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.realestate.zoningupdate.service;
+
+import com.realestate.zoningupdate.dto.ClusterDTO;
+import com.realestate.zoningupdate.event.ZoningUpdatedEvent;
+import com.realestate.zoningupdate.repository.ParcelRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ParcelClusterIndexTest {
+
+    // Centres of two neighbouring zoom 17 cells (0.0005 degrees wide) that share one zoom 16 cell.
+    // Longitudes are negative, so the parent cell index relies on the shift rounding down.
+    private static final double WEST_CELL_X = -96.78175;
+    private static final double EAST_CELL_X = -96.78125;
+    private static final double CELL_Y = 32.96725;
+
+    private final ParcelRepository parcelRepository = mock(ParcelRepository.class);
+    private final ClusterTileService clusterTileService = mock(ClusterTileService.class);
+    private final ParcelClusterIndex index = new ParcelClusterIndex(parcelRepository, clusterTileService);
+
+    private final List<Object[]> rows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "minZoom", 16);
+        ReflectionTestUtils.setField(index, "maxZoom", 17);
+        when(clusterTileService.gridSize(anyInt())).thenCallRealMethod();
+
+        // Parcels 1-10 are residential in the western cell, 11-20 commercial in the eastern one
+        for (int id = 1; id <= 20; id++) {
+            rows.add(row(id, id <= 10 ? WEST_CELL_X : EAST_CELL_X, id <= 10 ? "Residential" : "Commercial"));
+        }
+        when(parcelRepository.streamClusterPoints()).thenAnswer(invocation -> rows.stream());
+    }
+
+    @Test
+    void coarserLevelMergesChildCells() {
+        index.load();
+
+        List<ClusterDTO> finest = clusters(17);
+        assertThat(finest).hasSize(2);
+        assertThat(finest.get(0).getCount()).isEqualTo(10);
+        assertThat(finest.get(0).getZoningBreakdown()).containsEntry("Residential", 10).containsEntry("Commercial", 0);
+        assertThat(finest.get(1).getCount()).isEqualTo(10);
+        assertThat(finest.get(1).getZoningBreakdown()).containsEntry("Residential", 0).containsEntry("Commercial", 10);
+
+        List<ClusterDTO> parent = clusters(16);
+        assertThat(parent).hasSize(1);
+        assertThat(parent.get(0).getCount()).isEqualTo(20);
+        assertThat(parent.get(0).getZoningBreakdown()).containsEntry("Residential", 10).containsEntry("Commercial", 10);
+        assertThat(parent.get(0).getCenter()[0]).isCloseTo((WEST_CELL_X + EAST_CELL_X) / 2, within(1e-9));
+        assertThat(parent.get(0).getBounds()[0]).isCloseTo(WEST_CELL_X - 0.0001, within(1e-9));
+        assertThat(parent.get(0).getBounds()[2]).isCloseTo(EAST_CELL_X + 0.0001, within(1e-9));
+    }
+
+    @Test
+    void zoningUpdateMovesCountsAtEveryLevel() {
+        index.load();
+
+        ZoningUpdatedEvent event = update(List.of(1, 2, 3, 11), "Planned");
+        index.onZoningUpdated(event);
+        // Applying the same update again must not move the counts twice
+        index.onZoningUpdated(event);
+
+        List<ClusterDTO> finest = clusters(17);
+        assertThat(finest.get(0).getZoningBreakdown())
+                .containsEntry("Residential", 7).containsEntry("Planned", 3).containsEntry("Commercial", 0);
+        assertThat(finest.get(1).getZoningBreakdown())
+                .containsEntry("Commercial", 9).containsEntry("Planned", 1);
+
+        Map<String, Integer> parent = clusters(16).get(0).getZoningBreakdown();
+        assertThat(parent).containsEntry("Residential", 7).containsEntry("Commercial", 9)
+                .containsEntry("Planned", 4).containsEntry("Unknown", 0);
+        assertThat(clusters(16).get(0).getCount()).isEqualTo(20);
+    }
+
+    @Test
+    void unknownZoningTypesAreCountedAsUnknown() {
+        index.load();
+
+        index.onZoningUpdated(update(List.of(12, 999), "Industrial"));
+
+        assertThat(clusters(16).get(0).getZoningBreakdown())
+                .containsEntry("Commercial", 9).containsEntry("Unknown", 1);
+    }
+
+    @Test
+    void updatesCommittedDuringLoadAreReplayed() {
+        ZoningUpdatedEvent event = update(List.of(1, 2), "Commercial");
+        // The update commits after the stream has already read parcels 1 and 2
+        when(parcelRepository.streamClusterPoints()).thenAnswer(invocation -> rows.stream().peek(row -> {
+            if (((Integer) row[0]) == 5) {
+                index.onZoningUpdated(event);
+            }
+        }));
+
+        assertThat(index.covers(16)).isFalse();
+        index.load();
+
+        assertThat(index.covers(16)).isTrue();
+        assertThat(clusters(17).get(0).getZoningBreakdown())
+                .containsEntry("Residential", 8).containsEntry("Commercial", 2);
+        assertThat(clusters(16).get(0).getZoningBreakdown())
+                .containsEntry("Residential", 8).containsEntry("Commercial", 12);
+    }
+
+    private List<ClusterDTO> clusters(int zoom) {
+        List<ClusterDTO> clusters = new ArrayList<>(index.findClusters(-96.79, 32.96, -96.77, 32.97, zoom));
+        clusters.sort(Comparator.comparingDouble(cluster -> cluster.getCenter()[0]));
+        return clusters;
+    }
+
+    private static ZoningUpdatedEvent update(List<Integer> parcelIds, String zoningType) {
+        return new ZoningUpdatedEvent(parcelIds, zoningType, zoningType, List.of());
+    }
+
+    private static Object[] row(int id, double x, String zoningType) {
+        return new Object[]{id, x, CELL_Y, x - 0.0001, CELL_Y - 0.0001, x + 0.0001, CELL_Y + 0.0001, zoningType};
+    }
+}
@@ -0,0 +1,196 @@
+package com.realestate.zoningupdate.service;
+
+import com.realestate.zoningupdate.dto.ZoningAreaUpdateRequest;
+import com.realestate.zoningupdate.dto.ZoningChange;
+import com.realestate.zoningupdate.dto.ZoningUpdateJob;
+import com.realestate.zoningupdate.dto.ZoningUpdateRequest;
+import com.realestate.zoningupdate.event.ZoningUpdatedEvent;
+import com.realestate.zoningupdate.exception.BusinessException;
+import com.realestate.zoningupdate.exception.ResourceNotFoundException;
+import com.realestate.zoningupdate.exception.ZoningUpdateException;
+import com.realestate.zoningupdate.repository.ParcelRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ParcelServiceTest {
+
+    // Parcel 5 does not exist, so with chunks of two the third chunk (5, 6) is partial
+    private static final Set<Integer> EXISTING_IDS = Set.of(1, 2, 3, 4, 6);
+    private static final List<Integer> REQUESTED_IDS = List.of(1, 2, 3, 4, 5, 6);
+
+    private final ParcelRepository parcelRepository = mock(ParcelRepository.class);
+    private final AuditService auditService = mock(AuditService.class);
+    private final ZoningUpdateCoalescer coalescer = mock(ZoningUpdateCoalescer.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final ParcelService parcelService = new ParcelService(parcelRepository, auditService,
+            mock(ParcelSpatialIndex.class), mock(ParcelGeometrySimplifier.class), mock(ClusterTileService.class),
+            mock(ParcelClusterIndex.class), coalescer, mock(ZoningStatistics.class), new SimpleMeterRegistry(),
+            eventPublisher, transactionManager);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(parcelService, "updateChunkSize", 2);
+        ReflectionTestUtils.setField(parcelService, "defaultCommitMode", ZoningUpdateRequest.CommitMode.ALL_OR_NOTHING);
+
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(parcelRepository.updateZoningReturningPrevious(anyList(), eq("Commercial"), eq("Office")))
+                .thenAnswer(invocation -> {
+                    List<Integer> ids = invocation.getArgument(0);
+                    return ids.stream().filter(EXISTING_IDS::contains)
+                            .map(id -> new ZoningChange(id, "Residential", "Single Family")).toList();
+                });
+    }
+
+    @Test
+    void cursorRoundTrips() {
+        for (int id : new int[]{0, 1, 499, 123456, Integer.MAX_VALUE}) {
+            String cursor = ParcelService.encodeCursor(id);
+            assertThat(cursor).matches("[A-Za-z0-9_-]+");
+            assertThat(ParcelService.decodeCursor(cursor)).isEqualTo(id);
+        }
+    }
+
+    @Test
+    void missingCursorStartsAtTheFirstParcel() {
+        assertThat(ParcelService.decodeCursor(null)).isZero();
+        assertThat(ParcelService.decodeCursor("")).isZero();
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThatThrownBy(() -> ParcelService.decodeCursor("not a cursor!"))
+                .isInstanceOf(BusinessException.class);
+        // Valid base64 that does not hold a number
+        assertThatThrownBy(() -> ParcelService.decodeCursor("YWJj"))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    void allOrNothingRollsBackEveryChunk() {
+        List<Integer> progress = new ArrayList<>();
+
+        assertThatThrownBy(() -> parcelService.updateZoning(request(REQUESTED_IDS, null),
+                (processed, total) -> progress.add(processed)))
+                .isInstanceOf(ZoningUpdateException.class);
+
+        // All three chunks ran in the one transaction, which was rolled back
+        verify(parcelRepository, times(3)).updateZoningReturningPrevious(anyList(), eq("Commercial"), eq("Office"));
+        verify(transactionManager, times(1)).getTransaction(any());
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        verify(auditService, never()).logAuditEvent(anyString(), anyString(), anyString());
+        assertThat(progress).containsExactly(2, 4);
+    }
+
+    @Test
+    void perChunkKeepsChunksCommittedBeforeTheFailure() {
+        List<Integer> progress = new ArrayList<>();
+
+        assertThatThrownBy(() -> parcelService.updateZoning(request(REQUESTED_IDS, ZoningUpdateRequest.CommitMode.PER_CHUNK),
+                (processed, total) -> progress.add(processed)))
+                .isInstanceOf(ZoningUpdateException.class);
+
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(2)).commit(any());
+        verify(transactionManager, times(1)).rollback(any());
+        // Each committed chunk is audited on its own
+        verify(auditService, times(2)).logAuditEvent(eq("ZONING_UPDATE"), anyString(), eq("tester"));
+        assertThat(progress).containsExactly(2, 4);
+    }
+
+    @Test
+    void perChunkJobReportsTheCommittedParcels() throws Exception {
+        ZoningUpdateJobService jobService = new ZoningUpdateJobService(parcelService);
+        ReflectionTestUtils.setField(jobService, "threads", 1);
+        ReflectionTestUtils.setField(jobService, "queueCapacity", 1);
+        ReflectionTestUtils.setField(jobService, "retentionMinutes", 60L);
+        ReflectionTestUtils.setField(jobService, "shutdownTimeoutSeconds", 5L);
+        jobService.start();
+
+        String allOrNothing = jobService.submit(request(REQUESTED_IDS, ZoningUpdateRequest.CommitMode.ALL_OR_NOTHING)).getId();
+        String perChunk = jobService.submit(request(REQUESTED_IDS, ZoningUpdateRequest.CommitMode.PER_CHUNK)).getId();
+        // Waits for both jobs to finish
+        jobService.stop();
+
+        ZoningUpdateJob rolledBack = jobService.getJob(allOrNothing);
+        assertThat(rolledBack.getStatus()).isEqualTo(ZoningUpdateJob.Status.FAILED);
+        assertThat(rolledBack.getProcessedParcels()).isZero();
+
+        ZoningUpdateJob partial = jobService.getJob(perChunk);
+        assertThat(partial.getStatus()).isEqualTo(ZoningUpdateJob.Status.FAILED);
+        assertThat(partial.getProcessedParcels()).isEqualTo(4);
+        assertThat(partial.getError()).contains("Partial update");
+    }
+
+    @Test
+    void failingChunkPublishesItsEventBeforeFailing() {
+        assertThatThrownBy(() -> parcelService.updateZoning(request(List.of(5, 6), ZoningUpdateRequest.CommitMode.PER_CHUNK)))
+                .isInstanceOf(ZoningUpdateException.class);
+        assertThatThrownBy(() -> parcelService.updateZoning(request(List.of(5), ZoningUpdateRequest.CommitMode.PER_CHUNK)))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        // Listeners only see these after commit, so rolled back chunks are never delivered
+        ArgumentCaptor<ZoningUpdatedEvent> events = ArgumentCaptor.forClass(ZoningUpdatedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertThat(events.getAllValues().get(0).getParcelIds()).containsExactly(5, 6);
+        assertThat(events.getAllValues().get(0).getChanges()).extracting(ZoningChange::getParcelId).containsExactly(6);
+        assertThat(events.getAllValues().get(1).getParcelIds()).containsExactly(5);
+        assertThat(events.getAllValues().get(1).getChanges()).isEmpty();
+    }
+
+    @Test
+    void areaUpdateStopsOneParcelPastTheLimit() {
+        ReflectionTestUtils.setField(parcelService, "maxAreaUpdateParcels", 2);
+        when(parcelRepository.updateZoningInAreaReturningPrevious(anyString(), any(), eq("Commercial"), eq("Office"), eq(3)))
+                .thenReturn(List.of(new ZoningChange(1, "Residential", "Single Family"),
+                        new ZoningChange(2, "Residential", "Single Family"),
+                        new ZoningChange(3, "Residential", "Single Family")));
+        ZoningAreaUpdateRequest request = new ZoningAreaUpdateRequest();
+        request.setNorth(33.0);
+        request.setSouth(32.9);
+        request.setEast(-96.7);
+        request.setWest(-96.8);
+        request.setZoningType("Commercial");
+        request.setZoningSubType("Office");
+
+        assertThatThrownBy(() -> parcelService.updateZoningInArea(request))
+                .isInstanceOf(ZoningUpdateException.class)
+                .hasMessageContaining("limit of 2");
+
+        verify(transactionManager).rollback(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    private static ZoningUpdateRequest request(List<Integer> parcelIds, ZoningUpdateRequest.CommitMode commitMode) {
+        ZoningUpdateRequest request = new ZoningUpdateRequest();
+        request.setParcelIds(parcelIds);
+        request.setZoningType("Commercial");
+        request.setZoningSubType("Office");
+        request.setUsername("tester");
+        request.setCommitMode(commitMode);
+        return request;
+    }
+}
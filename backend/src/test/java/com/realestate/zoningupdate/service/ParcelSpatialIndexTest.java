@@ -0,0 +1,153 @@
+package com.realestate.zoningupdate.service;
+
+import com.realestate.zoningupdate.dto.ParcelFeature;
+import com.realestate.zoningupdate.event.ZoningUpdatedEvent;
+import com.realestate.zoningupdate.repository.ParcelRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.io.WKBWriter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ParcelSpatialIndexTest {
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+    // Parcels are 0.001 degree squares in a row along the equator, 0.002 degrees apart
+    private static final double SIZE = 0.001;
+    private static final double STEP = 0.002;
+
+    private final ParcelRepository parcelRepository = mock(ParcelRepository.class);
+    private final ParcelSpatialIndex index = new ParcelSpatialIndex(parcelRepository);
+
+    private final List<Object[]> rows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(index, "enabled", true);
+
+        // Parcels 1-5 are residential, 6-10 commercial, and parcel 11 has no geometry
+        for (int id = 1; id <= 10; id++) {
+            rows.add(row(id, id <= 5 ? "Residential" : null, id <= 5 ? "Single Family" : null));
+        }
+        rows.get(5)[10] = "Commercial";
+        rows.get(5)[9] = "Retail";
+        Object[] withoutGeometry = row(11, "Industrial", "Light");
+        withoutGeometry[1] = null;
+        rows.add(withoutGeometry);
+        when(parcelRepository.streamIndexRows()).thenAnswer(invocation -> rows.stream());
+    }
+
+    @Test
+    void answersBoundsCountAndIntersectionQueries() {
+        index.load();
+
+        assertThat(index.isReady()).isTrue();
+        // Covers parcels 2 to 4, touching none of their neighbours
+        double west = left(2) + SIZE / 2;
+        double east = left(4) + SIZE / 2;
+        assertThat(index.findByBounds(west, 0, east, SIZE)).extracting(ParcelFeature::getId)
+                .containsExactlyInAnyOrder(2, 3, 4);
+        assertThat(index.countByBounds(west, 0, east, SIZE)).isEqualTo(3);
+        assertThat(index.countByBounds(-1, -1, 1, 1)).isEqualTo(10);
+
+        // A line through the gap after parcel 3 and into parcel 4 only
+        assertThat(index.findIntersecting(GEOMETRY_FACTORY.createLineString(new Coordinate[]{
+                new Coordinate(left(3) + SIZE * 1.5, SIZE / 2),
+                new Coordinate(left(4) + SIZE / 2, SIZE / 2)
+        }))).extracting(ParcelFeature::getId).containsExactly(4);
+    }
+
+    @Test
+    void summaryGroupsByZoningAndSumsTheLoadedArea() {
+        index.load();
+
+        Map<String, Object[]> summary = summary(-1, -1, 1, 1);
+
+        assertThat(summary).containsOnlyKeys("Residential/Single Family", "Commercial/Retail", "Unknown/Unknown");
+        assertThat(summary.get("Residential/Single Family")[2]).isEqualTo(5L);
+        assertThat((double) summary.get("Residential/Single Family")[3]).isEqualTo(1 + 2 + 3 + 4 + 5);
+        assertThat(summary.get("Commercial/Retail")[2]).isEqualTo(1L);
+        assertThat(summary.get("Unknown/Unknown")[2]).isEqualTo(4L);
+    }
+
+    @Test
+    void zoningUpdatesReplaceTheIndexedAttributes() {
+        index.load();
+
+        index.onZoningUpdated(update(List.of(1, 2, 999), "Commercial", "Retail"));
+
+        Map<String, Object[]> summary = summary(-1, -1, 1, 1);
+        assertThat(summary.get("Residential/Single Family")[2]).isEqualTo(3L);
+        assertThat(summary.get("Commercial/Retail")[2]).isEqualTo(3L);
+        assertThat((double) summary.get("Commercial/Retail")[3]).isEqualTo(1 + 2 + 6);
+        assertThat(index.countByBounds(-1, -1, 1, 1)).isEqualTo(10);
+    }
+
+    @Test
+    void updatesCommittedDuringLoadAreReplayed() {
+        ZoningUpdatedEvent event = update(List.of(1, 2), "Commercial", "Office");
+        // The update commits after the stream has already read parcels 1 and 2
+        when(parcelRepository.streamIndexRows()).thenAnswer(invocation -> rows.stream().peek(row -> {
+            if (((Integer) row[0]) == 5) {
+                index.onZoningUpdated(event);
+            }
+        }));
+
+        assertThat(index.isReady()).isFalse();
+        index.load();
+
+        assertThat(index.isReady()).isTrue();
+        Map<String, Object[]> summary = summary(-1, -1, 1, 1);
+        assertThat(summary.get("Commercial/Office")[2]).isEqualTo(2L);
+        assertThat(summary.get("Residential/Single Family")[2]).isEqualTo(3L);
+    }
+
+    @Test
+    void failedLoadLeavesTheIndexUnused() {
+        when(parcelRepository.streamIndexRows()).thenThrow(new IllegalStateException("connection lost"));
+
+        index.load();
+        // Updates are no longer buffered once the load has given up
+        index.onZoningUpdated(update(List.of(1), "Commercial", "Office"));
+
+        assertThat(index.isReady()).isFalse();
+    }
+
+    private Map<String, Object[]> summary(double west, double south, double east, double north) {
+        Map<String, Object[]> summary = new HashMap<>();
+        for (Object[] row : index.summarizeZoningByBounds(west, south, east, north)) {
+            summary.put(row[0] + "/" + row[1], row);
+        }
+        return summary;
+    }
+
+    private static double left(int id) {
+        return id * STEP;
+    }
+
+    private static ZoningUpdatedEvent update(List<Integer> parcelIds, String zoningType, String zoningSubType) {
+        return new ZoningUpdatedEvent(parcelIds, zoningType, zoningSubType, List.of());
+    }
+
+    /**
+     * Index row for a parcel, with an area in square meters equal to its id
+     */
+    private static Object[] row(int id, String zoningType, String zoningSubType) {
+        byte[] wkb = new WKBWriter().write(GEOMETRY_FACTORY.toGeometry(
+                new Envelope(left(id), left(id) + SIZE, 0, SIZE)));
+        return new Object[]{id, wkb, "Parcel " + id, "Owner", "Dallas", "75201", "1 Main St",
+                "P" + id, zoningType, zoningSubType, zoningType, (double) id};
+    }
+}
@@ -0,0 +1,103 @@
+package com.realestate.zoningupdate.service;
+
+import com.realestate.zoningupdate.dto.ZoningChange;
+import com.realestate.zoningupdate.event.ZoningUpdatedEvent;
+import com.realestate.zoningupdate.repository.ParcelRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ZoningStatisticsTest {
+
+    private final ParcelRepository parcelRepository = mock(ParcelRepository.class);
+    private final ZoningStatistics statistics = new ZoningStatistics(parcelRepository);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(statistics, "enabled", true);
+
+        // Parcels without a zoning type are grouped under null by the database
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{"Residential", 5L});
+        rows.add(new Object[]{"Commercial", 2L});
+        rows.add(new Object[]{null, 3L});
+        when(parcelRepository.countParcelsByZoningType()).thenReturn(rows);
+    }
+
+    @Test
+    void missingPreviousTypeIsTakenFromUnknown() {
+        statistics.load();
+
+        statistics.onZoningUpdated(update("Commercial", change(1, null), change(2, null)));
+
+        assertThat(statistics.getCounts())
+                .containsEntry("Unknown", 1L).containsEntry("Commercial", 4L).containsEntry("Residential", 5L);
+    }
+
+    @Test
+    void repeatedUpdatesMoveEachParcelOnce() {
+        statistics.load();
+
+        // Each update reports the zoning the parcels had just before it
+        statistics.onZoningUpdated(update("Commercial", change(1, "Residential"), change(2, "Residential")));
+        statistics.onZoningUpdated(update("Industrial", change(1, "Commercial"), change(2, "Commercial")));
+        // Rezoning to the current type leaves the counts alone
+        statistics.onZoningUpdated(update("Industrial", change(1, "Industrial")));
+
+        assertThat(statistics.getCounts())
+                .containsEntry("Residential", 3L).containsEntry("Commercial", 2L)
+                .containsEntry("Industrial", 2L).containsEntry("Unknown", 3L);
+    }
+
+    @Test
+    void emptiedTypesAreLeftOut() {
+        statistics.load();
+
+        statistics.onZoningUpdated(update("Residential", change(1, "Commercial"), change(2, "Commercial")));
+
+        assertThat(statistics.getCounts()).doesNotContainKey("Commercial").containsEntry("Residential", 7L);
+    }
+
+    @Test
+    void updatesBeforeLoadingAreLeftToTheDatabaseCounts() {
+        // The counts read at load time already include updates committed before it
+        statistics.onZoningUpdated(update("Commercial", change(1, "Residential")));
+        assertThat(statistics.isReady()).isFalse();
+
+        statistics.load();
+
+        assertThat(statistics.isReady()).isTrue();
+        assertThat(statistics.getCounts())
+                .containsEntry("Residential", 5L).containsEntry("Commercial", 2L).containsEntry("Unknown", 3L);
+    }
+
+    @Test
+    void failedReconcileKeepsTheLiveCounts() {
+        statistics.load();
+        statistics.onZoningUpdated(update("Commercial", change(1, "Residential")));
+        when(parcelRepository.countParcelsByZoningType()).thenThrow(new IllegalStateException("connection lost"));
+
+        statistics.reconcile();
+
+        assertThat(statistics.getCounts()).containsEntry("Residential", 4L).containsEntry("Commercial", 3L);
+    }
+
+    private static ZoningUpdatedEvent update(String zoningType, ZoningChange... changes) {
+        List<Integer> parcelIds = new ArrayList<>();
+        for (ZoningChange change : changes) {
+            parcelIds.add(change.getParcelId());
+        }
+        return new ZoningUpdatedEvent(parcelIds, zoningType, zoningType, List.of(changes));
+    }
+
+    private static ZoningChange change(int parcelId, String previousType) {
+        return new ZoningChange(parcelId, previousType, previousType);
+    }
+}
@@ -0,0 +1,156 @@
+package com.realestate.zoningupdate.service;
+
+import com.realestate.zoningupdate.dto.ZoningChange;
+import com.realestate.zoningupdate.dto.ZoningUpdateRequest;
+import com.realestate.zoningupdate.event.ZoningUpdatedEvent;
+import com.realestate.zoningupdate.exception.ResourceNotFoundException;
+import com.realestate.zoningupdate.exception.ZoningUpdateException;
+import com.realestate.zoningupdate.repository.ParcelRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ZoningUpdateCoalescerTest {
+
+    // Long enough for every concurrent caller in a test to join the first caller's batch
+    private static final long WINDOW_MS = 500;
+
+    private static final Set<Integer> EXISTING_IDS = Set.of(1, 2, 3, 4, 5);
+
+    private final ParcelRepository parcelRepository = mock(ParcelRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final ZoningUpdateCoalescer coalescer =
+            new ZoningUpdateCoalescer(parcelRepository, eventPublisher, transactionManager);
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(coalescer, "enabled", true);
+        ReflectionTestUtils.setField(coalescer, "windowMs", WINDOW_MS);
+        ReflectionTestUtils.setField(coalescer, "maxRequestParcels", 500);
+        ReflectionTestUtils.setField(coalescer, "maxBatchParcels", 5000);
+
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(parcelRepository.lockExistingIds(any())).thenAnswer(invocation -> {
+            Integer[] ids = invocation.getArgument(0);
+            return Arrays.stream(ids).filter(EXISTING_IDS::contains).toList();
+        });
+        when(parcelRepository.updateZoningReturningPrevious(anyList(), eq("Commercial"), eq("Office")))
+                .thenAnswer(invocation -> {
+                    List<Integer> ids = invocation.getArgument(0);
+                    return ids.stream().map(id -> new ZoningChange(id, "Residential", "Single Family")).toList();
+                });
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void failingRequestsDoNotAffectTheRestOfTheBatch() throws Exception {
+        Future<List<ZoningChange>> valid = submit(1, 2);
+        Future<List<ZoningChange>> partlyMissing = submit(3, 99);
+        Future<List<ZoningChange>> allMissing = submit(98);
+        Future<List<ZoningChange>> duplicated = submit(4, 4);
+        Future<List<ZoningChange>> alsoValid = submit(5);
+
+        assertThat(valid.get(5, TimeUnit.SECONDS)).extracting(ZoningChange::getParcelId).containsExactly(1, 2);
+        assertThat(alsoValid.get(5, TimeUnit.SECONDS)).extracting(ZoningChange::getParcelId).containsExactly(5);
+        assertFailsWith(partlyMissing, ZoningUpdateException.class);
+        assertFailsWith(allMissing, ResourceNotFoundException.class);
+        // Duplicates are rejected, as the chunked update path does
+        assertFailsWith(duplicated, ZoningUpdateException.class);
+
+        // One batch, and only the valid requests' parcels were updated and announced
+        verify(parcelRepository, times(1)).lockExistingIds(any());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Integer>> updated = ArgumentCaptor.forClass(List.class);
+        verify(parcelRepository, times(1)).updateZoningReturningPrevious(updated.capture(), eq("Commercial"), eq("Office"));
+        assertThat(updated.getValue()).containsExactlyInAnyOrder(1, 2, 5);
+
+        ArgumentCaptor<ZoningUpdatedEvent> event = ArgumentCaptor.forClass(ZoningUpdatedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getParcelIds()).containsExactlyInAnyOrder(1, 2, 5);
+    }
+
+    @Test
+    void batchFailureIsReportedToEveryCaller() throws Exception {
+        when(parcelRepository.updateZoningReturningPrevious(anyList(), eq("Commercial"), eq("Office")))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+
+        List<Future<List<ZoningChange>>> results = List.of(submit(1), submit(2), submit(3));
+
+        for (Future<List<ZoningChange>> result : results) {
+            assertFailsWith(result, DataAccessResourceFailureException.class);
+        }
+    }
+
+    @Test
+    void callersAreReleasedWhenTheBatchThrowsAnError() throws Exception {
+        when(parcelRepository.lockExistingIds(any())).thenThrow(new OutOfMemoryError("simulated"));
+
+        List<Future<List<ZoningChange>>> results = List.of(submit(1), submit(2), submit(3));
+
+        // The leader sees the Error itself, everyone else is told the batch did not complete
+        int released = 0;
+        for (Future<List<ZoningChange>> result : results) {
+            Throwable failure = failure(result);
+            if (failure instanceof ZoningUpdateException) {
+                released++;
+            } else {
+                assertThat(failure).isInstanceOf(OutOfMemoryError.class);
+            }
+        }
+        assertThat(released).isEqualTo(2);
+    }
+
+    private Future<List<ZoningChange>> submit(Integer... parcelIds) {
+        ZoningUpdateRequest request = new ZoningUpdateRequest();
+        request.setParcelIds(List.of(parcelIds));
+        request.setZoningType("Commercial");
+        request.setZoningSubType("Office");
+        request.setUsername("tester");
+        return callers.submit(() -> coalescer.update(request));
+    }
+
+    private static void assertFailsWith(Future<List<ZoningChange>> result, Class<? extends Throwable> type)
+            throws Exception {
+        assertThat(failure(result)).isInstanceOf(type);
+    }
+
+    private static Throwable failure(Future<List<ZoningChange>> result) throws Exception {
+        try {
+            result.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+        throw new AssertionError("Expected the update to fail");
+    }
+}
@@ -0,0 +1,211 @@
+package com.realestate.zoningupdate.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realestate.zoningupdate.dto.ParcelFeature;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Polygon;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ParcelBinaryEncoderTest {
+
+    // Half of the 10^-6 degree quantization step
+    private static final double TOLERANCE = 5e-7;
+
+    private final GeometryFactory geometryFactory = new GeometryFactory();
+
+    @Test
+    void binaryRoundTripMatchesGeoJSON() throws IOException {
+        List<ParcelFeature> parcels = List.of(
+                parcel(10, withHole(-96.78121, 32.96722), "Smith Family Trust", "Residential", "Single Family"),
+                parcel(7, square(-96.78001, 32.96811, 0.0004), null, "Residential", "Two Family"),
+                parcel(Integer.MAX_VALUE, square(-96.77055, 32.97012, 0.001), "Lee Holdings", "Commercial", "Office"),
+                parcel(1, null, "Smith Family Trust", null, null));
+
+        byte[] binary = encode(ParcelFormat.BINARY, parcels);
+        byte[] geoJson = encode(ParcelFormat.GEOJSON, parcels);
+
+        List<Map<String, Object>> decoded = new BinaryReader(binary).readFeatures();
+        List<Map<String, Object>> expected = features(geoJson);
+
+        assertThat(decoded).hasSize(parcels.size());
+        for (int i = 0; i < parcels.size(); i++) {
+            assertThat(decoded.get(i).get("properties")).isEqualTo(expected.get(i).get("properties"));
+            assertSameGeometry(decoded.get(i).get("geometry"), expected.get(i).get("geometry"));
+        }
+    }
+
+    @Test
+    void repeatedValuesAreWrittenOnce() throws IOException {
+        List<ParcelFeature> parcels = new ArrayList<>();
+        for (int id = 1; id <= 50; id++) {
+            parcels.add(parcel(id, square(-96.78 + id * 0.0005, 32.96, 0.0004),
+                    "Smith Family Trust", "Residential", "Single Family"));
+        }
+
+        byte[] binary = encode(ParcelFormat.BINARY, parcels);
+        String text = new String(binary, StandardCharsets.ISO_8859_1);
+
+        assertThat(text.split("Smith Family Trust", -1)).hasSize(2);
+        assertThat(binary.length).isLessThan(encode(ParcelFormat.GEOJSON, parcels).length / 4);
+    }
+
+    private byte[] encode(ParcelFormat format, List<ParcelFeature> parcels) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int count = format.write(parcels.stream(), ParcelFeature::getGeom, out);
+        assertThat(count).isEqualTo(parcels.size());
+        return out.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> features(byte[] geoJson) throws IOException {
+        Map<String, Object> collection = new ObjectMapper().readValue(geoJson, Map.class);
+        return (List<Map<String, Object>>) collection.get("features");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void assertSameGeometry(Object actual, Object expected) {
+        if (expected == null) {
+            assertThat(actual).isNull();
+            return;
+        }
+        List<List<List<Number>>> actualRings = (List<List<List<Number>>>) ((Map<String, Object>) actual).get("coordinates");
+        List<List<List<Number>>> expectedRings = (List<List<List<Number>>>) ((Map<String, Object>) expected).get("coordinates");
+        assertThat(actualRings).hasSameSizeAs(expectedRings);
+        for (int ring = 0; ring < expectedRings.size(); ring++) {
+            assertThat(actualRings.get(ring)).hasSameSizeAs(expectedRings.get(ring));
+            for (int point = 0; point < expectedRings.get(ring).size(); point++) {
+                for (int axis = 0; axis < 2; axis++) {
+                    assertThat(actualRings.get(ring).get(point).get(axis).doubleValue())
+                            .isCloseTo(expectedRings.get(ring).get(point).get(axis).doubleValue(), within(TOLERANCE));
+                }
+            }
+        }
+    }
+
+    private static ParcelFeature parcel(int id, Polygon geometry, String owner, String zoningType, String zoningSub) {
+        return new ParcelFeature(id, geometry, "Parcel " + id, owner, "Dallas", "75240", id + " Main St",
+                "P-" + id, zoningType != null ? "SF-7" : null, zoningSub, zoningType);
+    }
+
+    private Polygon square(double x, double y, double size) {
+        return geometryFactory.createPolygon(ring(x, y, size));
+    }
+
+    private Polygon withHole(double x, double y) {
+        return geometryFactory.createPolygon(ring(x, y, 0.001),
+                new LinearRing[]{ring(x + 0.0003, y + 0.0003, 0.0002)});
+    }
+
+    private LinearRing ring(double x, double y, double size) {
+        return geometryFactory.createLinearRing(new Coordinate[]{
+                new Coordinate(x, y), new Coordinate(x + size, y), new Coordinate(x + size, y + size),
+                new Coordinate(x, y + size), new Coordinate(x, y)});
+    }
+
+    /**
+     * Reference decoder for the layout documented on ParcelBinaryEncoder, producing
+     * features shaped like the parsed GeoJSON output (the frontend decoder does the same)
+     */
+    private static class BinaryReader {
+        private final byte[] bytes;
+        private int pos;
+
+        BinaryReader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        List<Map<String, Object>> readFeatures() {
+            assertThat(new String(bytes, 0, 4, StandardCharsets.US_ASCII)).isEqualTo("ZPCL");
+            pos = 5;
+            double scale = Math.pow(10, readVarint());
+            List<String> propertyNames = new ArrayList<>();
+            long propertyCount = readVarint();
+            for (int i = 0; i < propertyCount; i++) {
+                propertyNames.add(readString());
+            }
+
+            List<String> dictionary = new ArrayList<>();
+            List<Map<String, Object>> features = new ArrayList<>();
+            long lastId = 0;
+            long lastX = 0;
+            long lastY = 0;
+            while (true) {
+                int tag = bytes[pos++];
+                if (tag == 0x00) {
+                    assertThat(readVarint()).isEqualTo(features.size());
+                    assertThat(pos).isEqualTo(bytes.length);
+                    return features;
+                } else if (tag == 0x01) {
+                    dictionary.add(readString());
+                } else {
+                    assertThat(tag).isEqualTo(0x02);
+                    lastId += readSignedVarint();
+                    Map<String, Object> properties = new LinkedHashMap<>();
+                    properties.put("id", (int) lastId);
+                    for (String name : propertyNames) {
+                        long value = readVarint();
+                        properties.put(name, value == 0 ? null
+                                : value == 1 ? readString() : dictionary.get((int) value - 2));
+                    }
+
+                    List<List<List<Double>>> rings = new ArrayList<>();
+                    long ringCount = readVarint();
+                    for (int r = 0; r < ringCount; r++) {
+                        List<List<Double>> ring = new ArrayList<>();
+                        long pointCount = readVarint();
+                        for (int i = 0; i < pointCount; i++) {
+                            lastX += readSignedVarint();
+                            lastY += readSignedVarint();
+                            ring.add(List.of(lastX / scale, lastY / scale));
+                        }
+                        // Rings are written without their closing point
+                        ring.add(ring.get(0));
+                        rings.add(ring);
+                    }
+
+                    Map<String, Object> feature = new LinkedHashMap<>();
+                    feature.put("properties", properties);
+                    feature.put("geometry", rings.isEmpty() ? null : Map.of("type", "Polygon", "coordinates", rings));
+                    features.add(feature);
+                }
+            }
+        }
+
+        private long readVarint() {
+            long result = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = bytes[pos++] & 0xFF;
+                result |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return result;
+        }
+
+        private long readSignedVarint() {
+            long value = readVarint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private String readString() {
+            int length = (int) readVarint();
+            String value = new String(bytes, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.realestate.zoningupdate.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParcelFormatTest {
+
+    private static final String BINARY = ParcelBinaryEncoder.MEDIA_TYPE;
+
+    @Test
+    void defaultsToGeoJSON() {
+        assertThat(ParcelFormat.fromAcceptHeader(null)).isEqualTo(ParcelFormat.GEOJSON);
+        assertThat(ParcelFormat.fromAcceptHeader("")).isEqualTo(ParcelFormat.GEOJSON);
+        assertThat(ParcelFormat.fromAcceptHeader("*/*")).isEqualTo(ParcelFormat.GEOJSON);
+        assertThat(ParcelFormat.fromAcceptHeader("application/json, text/plain, */*")).isEqualTo(ParcelFormat.GEOJSON);
+        assertThat(ParcelFormat.fromAcceptHeader("not a media type;;")).isEqualTo(ParcelFormat.GEOJSON);
+    }
+
+    @Test
+    void picksBinaryWhenRequestedExplicitly() {
+        assertThat(ParcelFormat.fromAcceptHeader(BINARY)).isEqualTo(ParcelFormat.BINARY);
+        assertThat(ParcelFormat.fromAcceptHeader("*/*, " + BINARY)).isEqualTo(ParcelFormat.BINARY);
+        assertThat(ParcelFormat.fromAcceptHeader("application/json;q=0.5, " + BINARY)).isEqualTo(ParcelFormat.BINARY);
+    }
+
+    @Test
+    void honoursQualityValues() {
+        assertThat(ParcelFormat.fromAcceptHeader(BINARY + ";q=0.5, application/json")).isEqualTo(ParcelFormat.GEOJSON);
+        assertThat(ParcelFormat.fromAcceptHeader(BINARY + ";q=0.2, application/*;q=0.8")).isEqualTo(ParcelFormat.GEOJSON);
+        assertThat(ParcelFormat.fromAcceptHeader(BINARY + ";q=0")).isEqualTo(ParcelFormat.GEOJSON);
+        assertThat(ParcelFormat.fromAcceptHeader(BINARY + ";q=0.9, */*;q=0.1")).isEqualTo(ParcelFormat.BINARY);
+    }
+}
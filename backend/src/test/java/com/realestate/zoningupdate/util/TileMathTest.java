@@ -0,0 +1,78 @@
+package com.realestate.zoningupdate.util;
+
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TileMathTest {
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    void worldCornersMapToTileEdges() {
+        assertThat(TileMath.lonToTileX(-180, 3)).isCloseTo(0, within(EPSILON));
+        assertThat(TileMath.lonToTileX(180, 3)).isCloseTo(8, within(EPSILON));
+        assertThat(TileMath.latToTileY(0, 3)).isCloseTo(4, within(EPSILON));
+        // Latitudes past the projection limit are clamped to the top and bottom edges
+        assertThat(TileMath.latToTileY(89.9, 3)).isCloseTo(0, within(1e-6));
+        assertThat(TileMath.latToTileY(-89.9, 3)).isCloseTo(8, within(1e-6));
+    }
+
+    @Test
+    void tileCoordinatesRoundTrip() {
+        double lon = -96.7812;
+        double lat = 32.9672;
+        for (int zoom = 0; zoom <= TileMath.MAX_ZOOM; zoom++) {
+            assertThat(TileMath.tileXToLon(TileMath.lonToTileX(lon, zoom), zoom)).isCloseTo(lon, within(EPSILON));
+            assertThat(TileMath.tileYToLat(TileMath.latToTileY(lat, zoom), zoom)).isCloseTo(lat, within(EPSILON));
+        }
+    }
+
+    @Test
+    void validatesTileAddresses() {
+        assertThat(TileMath.isValidTile(0, 0, 0)).isTrue();
+        assertThat(TileMath.isValidTile(2, 3, 3)).isTrue();
+        assertThat(TileMath.isValidTile(2, 4, 0)).isFalse();
+        assertThat(TileMath.isValidTile(2, 0, -1)).isFalse();
+        assertThat(TileMath.isValidTile(-1, 0, 0)).isFalse();
+        assertThat(TileMath.isValidTile(TileMath.MAX_ZOOM + 1, 0, 0)).isFalse();
+    }
+
+    @Test
+    void tileEnvelopeCoversTheTileAndItsBuffer() {
+        Envelope tile = TileMath.tileEnvelope(1, 0, 0, 0);
+        assertThat(tile.getMinX()).isCloseTo(-180, within(EPSILON));
+        assertThat(tile.getMaxX()).isCloseTo(0, within(EPSILON));
+        assertThat(tile.getMinY()).isCloseTo(0, within(EPSILON));
+        assertThat(tile.getMaxY()).isCloseTo(85.0511287798, within(1e-6));
+
+        Envelope buffered = TileMath.tileEnvelope(1, 0, 0, 0.25);
+        assertThat(buffered.getMinX()).isCloseTo(-225, within(EPSILON));
+        assertThat(buffered.getMaxX()).isCloseTo(45, within(EPSILON));
+        assertThat(buffered.contains(tile)).isTrue();
+    }
+
+    @Test
+    void projectsGeometryIntoTilePixels() {
+        Envelope tile = TileMath.tileEnvelope(12, 940, 1650, 0);
+        GeometryFactory factory = new GeometryFactory();
+        Geometry corners = factory.createLineString(new Coordinate[]{
+                new Coordinate(tile.getMinX(), tile.getMaxY()),
+                new Coordinate(tile.getMaxX(), tile.getMinY())});
+
+        Geometry projected = TileMath.toTilePixels(corners, 12, 940, 1650, 4096);
+
+        // The top-left corner is (0, 0) and the bottom-right corner is (extent, extent)
+        assertThat(projected.getCoordinates()[0].x).isCloseTo(0, within(1e-6));
+        assertThat(projected.getCoordinates()[0].y).isCloseTo(0, within(1e-6));
+        assertThat(projected.getCoordinates()[1].x).isCloseTo(4096, within(1e-6));
+        assertThat(projected.getCoordinates()[1].y).isCloseTo(4096, within(1e-6));
+        // The input geometry is left untouched
+        assertThat(corners.getCoordinates()[0].x).isCloseTo(tile.getMinX(), within(EPSILON));
+    }
+}
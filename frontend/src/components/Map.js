@@ -42,6 +42,8 @@ const DEFAULT_ZOOM = 16;
 // Zoom level thresholds
 const CLUSTERS_ONLY_ZOOM = 17; // Below this zoom, show only clusters
 const FULL_DETAIL_ZOOM = 17; // Above this zoom, show full parcel details
+// Parcels loaded below this zoom are simplified by the server (app.map.simplification.max-zoom)
+const SIMPLIFICATION_MAX_ZOOM = 18;
 
 // Custom DivOverlay component for cluster labels
 const DivOverlay = ({ center, html }) => {
@@ -282,20 +284,20 @@ const ParcelMap = ({
       return existingData;
     }
 
-    // Get all existing feature IDs for quick lookup
-    const existingIds = new Set(
-      existingData.features.map((feature) => feature.properties.id)
+    // Get all new feature IDs for quick lookup
+    const newIds = new Set(
+      newData.features.map((feature) => feature.properties.id)
     );
 
-    // Only add features that don't already exist
-    const filteredNewFeatures = newData.features.filter(
-      (feature) => !existingIds.has(feature.properties.id)
+    // New features replace existing ones, which may be simplified for a lower zoom
+    const keptFeatures = existingData.features.filter(
+      (feature) => !newIds.has(feature.properties.id)
     );
 
     // Return merged data
     return {
       ...existingData,
-      features: [...existingData.features, ...filteredNewFeatures],
+      features: [...keptFeatures, ...newData.features],
     };
   }, []);
 
@@ -315,13 +317,17 @@ const ParcelMap = ({
           bounds.getNorth(),
         ];
 
+        // Areas loaded at a lower zoom have too little detail once simplification applies
+        const detailZoom = Math.min(Math.ceil(zoom), SIMPLIFICATION_MAX_ZOOM);
+
         // Check if this area is fully contained in any previously loaded area
         return loadedAreasRef.current.some((area) => {
           return (
             area[0] <= boundingBox[0] && // west
             area[1] <= boundingBox[1] && // south
             area[2] >= boundingBox[2] && // east
-            area[3] >= boundingBox[3] // north
+            area[3] >= boundingBox[3] && // north
+            area[4] >= detailZoom // zoom the area was loaded at
           );
         });
       }
@@ -436,15 +442,17 @@ const ParcelMap = ({
           // Update cluster state
           setClusterData((prevClusters) => [...clusters]);
         } else {
-          // Get parcels from API based on current bounds with full detail
+          // Get parcels from API based on current bounds, simplified for the current zoom
+          const detailZoom = Math.ceil(zoom);
           const data = await apiService.getParcelsByBounds(
             paddedBounds[3], // north
             paddedBounds[1], // south
             paddedBounds[2], // east
-            paddedBounds[0] // west
+            paddedBounds[0], // west
+            detailZoom
           );
-          // Add this area to loaded areas to avoid reloading it
-          loadedAreasRef.current.push(paddedBounds);
+          // Add this area to loaded areas to avoid reloading it at this level of detail
+          loadedAreasRef.current.push([...paddedBounds, detailZoom]);
 
           // Merge with existing data
           setGeoJsonData((prevData) => mergeGeoJsonData(prevData, data));
@@ -101,7 +101,9 @@ const ZoningControls = ({ selectedParcels, parcelData, onUpdateSuccess }) => {
         selectedParcels,
         zoningType,
         zoningSubType,
-        username || 'anonymous'
+        username || 'anonymous',
+        (processed, total) =>
+          setMessage(`Updating zoning... ${processed} of ${total} parcels`)
       );
 
       // Show success message with details
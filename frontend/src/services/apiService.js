@@ -10,15 +10,32 @@ import {
   getMockClustersByBounds,
   getMockAuditLogs,
 } from '../utils/mockDataHandler';
+import {
+  PARCEL_BINARY_MEDIA_TYPE,
+  decodeParcelBinary,
+} from '../utils/parcelBinaryDecoder';
 
 const API_BASE_URL =
   process.env.REACT_APP_API_BASE_URL || 'http://localhost:8080/api';
 const USE_MOCK_DATA = process.env.REACT_APP_MOCK_DATA === 'true';
+// Request the compact binary parcel encoding instead of GeoJSON
+const USE_BINARY_PARCELS = process.env.REACT_APP_BINARY_PARCELS === 'true';
 
 // Retry configuration
 const MAX_RETRIES = 3;
 const RETRY_DELAY = 1000; // 1 second between retries
 
+// Selections up to this size are updated synchronously; the server batches these
+// with concurrent updates (app.zoning.coalesce.max-request-parcels)
+const SYNC_UPDATE_MAX_PARCELS = 500;
+
+// Zoning update jobs run in the background; their status is read right away and then
+// polled at an interval that doubles from the initial one up to the maximum
+const JOB_POLL_INITIAL_INTERVAL = 250;
+const JOB_POLL_MAX_INTERVAL = 2000;
+// Stop waiting for a job after this long; it keeps running on the server
+const JOB_POLL_TIMEOUT = 30 * 60 * 1000; // 30 minutes
+
 // Initialize mock data if using mock mode
 if (USE_MOCK_DATA) {
   initMockData();
@@ -92,8 +109,18 @@ const apiService = {
     }
 
     try {
-      const response = await api.get('/parcels/geojson');
-      return response.data;
+      // The endpoint is paginated; follow the cursor until the last page
+      const features = [];
+      let cursor = null;
+      do {
+        const response = await api.get('/parcels/geojson', {
+          params: cursor ? { cursor } : {},
+        });
+        features.push(...response.data.features);
+        cursor = response.headers['x-next-cursor'] || null;
+      } while (cursor);
+
+      return { type: 'FeatureCollection', features };
     } catch (error) {
       console.error('Error fetching parcels as GeoJSON:', error);
       throw error;
@@ -101,7 +128,8 @@ const apiService = {
   },
 
   // Fetch parcels by bounds - THIS IS THE MAIN METHOD FOR DYNAMIC LOADING
-  getParcelsByBounds: async (north, south, east, west) => {
+  // zoom is optional; below the server's simplification max zoom it returns simplified outlines
+  getParcelsByBounds: async (north, south, east, west, zoom) => {
     // Use mock data if mock mode is enabled
     if (USE_MOCK_DATA) {
       // Simulate network delay for realistic testing
@@ -112,9 +140,20 @@ const apiService = {
     }
 
     try {
+      if (USE_BINARY_PARCELS) {
+        const response = await fetchWithRetry(() =>
+          api.get('/parcels/geojson/bounds', {
+            params: { north, south, east, west, zoom },
+            headers: { Accept: PARCEL_BINARY_MEDIA_TYPE },
+            responseType: 'arraybuffer',
+          })
+        );
+        return decodeParcelBinary(response.data);
+      }
+
       const response = await fetchWithRetry(() =>
         api.get('/parcels/geojson/bounds', {
-          params: { north, south, east, west },
+          params: { north, south, east, west, zoom },
         })
       );
       return response.data;
@@ -182,12 +221,14 @@ const apiService = {
     }
   },
 
-  // Update zoning for selected parcels
+  // Update zoning for selected parcels. The update runs as a background job;
+  // onProgress is called with (processedParcels, totalParcels) while it runs.
   updateZoning: async (
     parcelIds,
     zoningType,
     zoningSubType,
-    username = 'user'
+    username = 'user',
+    onProgress = null
   ) => {
     // Use mock data if mock mode is enabled
     if (USE_MOCK_DATA) {
@@ -234,15 +275,62 @@ const apiService = {
     }
 
     try {
-      const response = await fetchWithRetry(() =>
-        api.post('/parcels/update-zoning', {
+      if (parcelIds.length <= SYNC_UPDATE_MAX_PARCELS) {
+        // Not retried: a timed-out request may still have been applied
+        const response = await api.post('/parcels/update-zoning', {
           parcelIds,
           zoningType,
           zoningSubType,
           username,
-        })
-      );
-      return response.data;
+        });
+        if (onProgress) {
+          onProgress(parcelIds.length, parcelIds.length);
+        }
+        return response.data;
+      }
+
+      // Submitting is not retried: a timed-out submit may already have queued the job
+      const submitted = await api.post('/parcels/jobs', {
+        parcelIds,
+        zoningType,
+        zoningSubType,
+        username,
+      });
+
+      let job = submitted.data;
+      const deadline = Date.now() + JOB_POLL_TIMEOUT;
+      let pollInterval = 0;
+      while (job.status === 'QUEUED' || job.status === 'RUNNING') {
+        if (onProgress) {
+          onProgress(job.processedParcels, job.totalParcels);
+        }
+        if (Date.now() >= deadline) {
+          throw new Error(
+            'Zoning update is taking longer than expected. It will continue in the background; check the audit log for the result.'
+          );
+        }
+        if (pollInterval > 0) {
+          await new Promise((resolve) => setTimeout(resolve, pollInterval));
+        }
+        pollInterval = Math.min(
+          Math.max(pollInterval * 2, JOB_POLL_INITIAL_INTERVAL),
+          JOB_POLL_MAX_INTERVAL
+        );
+        const response = await fetchWithRetry(() =>
+          api.get(`/parcels/jobs/${job.id}`)
+        );
+        job = response.data;
+      }
+
+      if (job.status === 'FAILED') {
+        throw new Error(job.error || 'Zoning update failed');
+      }
+
+      return {
+        success: true,
+        message: 'Zoning updated successfully',
+        updatedParcels: job.totalParcels,
+      };
     } catch (error) {
       console.error('Error updating zoning:', error);
       throw error;
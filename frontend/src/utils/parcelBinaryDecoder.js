@@ -0,0 +1,111 @@
+// Decoder for the compact binary parcel encoding served by the backend
+// (see ParcelBinaryEncoder.java for the layout). Produces the same GeoJSON
+// FeatureCollection shape as the /parcels/geojson endpoints.
+
+export const PARCEL_BINARY_MEDIA_TYPE = 'application/vnd.zoning.parcels+binary';
+
+const MAGIC = 'ZPCL';
+const TAG_END = 0x00;
+const TAG_STRING = 0x01;
+const TAG_FEATURE = 0x02;
+
+export const decodeParcelBinary = (buffer) => {
+  const bytes = new Uint8Array(buffer);
+  const textDecoder = new TextDecoder('utf-8');
+  let pos = 0;
+
+  // Varints are decoded with arithmetic rather than bit operators so values
+  // above 2^31 do not overflow
+  const readVarint = () => {
+    let result = 0;
+    let multiplier = 1;
+    let byte;
+    do {
+      byte = bytes[pos++];
+      result += (byte & 0x7f) * multiplier;
+      multiplier *= 128;
+    } while (byte & 0x80);
+    return result;
+  };
+
+  const readSignedVarint = () => {
+    const value = readVarint();
+    return value % 2 === 0 ? value / 2 : -(value + 1) / 2;
+  };
+
+  const readString = () => {
+    const length = readVarint();
+    const value = textDecoder.decode(bytes.subarray(pos, pos + length));
+    pos += length;
+    return value;
+  };
+
+  if (String.fromCharCode(...bytes.subarray(0, 4)) !== MAGIC) {
+    throw new Error('Invalid parcel binary data');
+  }
+  pos = 5; // magic + version byte
+
+  const scale = Math.pow(10, readVarint());
+  const propertyNames = [];
+  const propertyCount = readVarint();
+  for (let i = 0; i < propertyCount; i++) {
+    propertyNames.push(readString());
+  }
+
+  const dictionary = [];
+  const features = [];
+  let lastId = 0;
+  let lastX = 0;
+  let lastY = 0;
+
+  while (pos < bytes.length) {
+    const tag = bytes[pos++];
+
+    if (tag === TAG_END) {
+      break;
+    } else if (tag === TAG_STRING) {
+      dictionary.push(readString());
+    } else if (tag === TAG_FEATURE) {
+      lastId += readSignedVarint();
+      const properties = { id: lastId };
+
+      propertyNames.forEach((name) => {
+        const value = readVarint();
+        if (value === 0) {
+          properties[name] = null;
+        } else if (value === 1) {
+          properties[name] = readString();
+        } else {
+          properties[name] = dictionary[value - 2];
+        }
+      });
+
+      const rings = [];
+      const ringCount = readVarint();
+      for (let r = 0; r < ringCount; r++) {
+        const ring = [];
+        const pointCount = readVarint();
+        for (let i = 0; i < pointCount; i++) {
+          lastX += readSignedVarint();
+          lastY += readSignedVarint();
+          ring.push([lastX / scale, lastY / scale]);
+        }
+        // Rings are sent without their closing point
+        if (ring.length > 0) {
+          ring.push([...ring[0]]);
+        }
+        rings.push(ring);
+      }
+
+      features.push({
+        type: 'Feature',
+        properties,
+        geometry: rings.length > 0 ? { type: 'Polygon', coordinates: rings } : null,
+      });
+    } else {
+      throw new Error(`Unknown record tag ${tag} in parcel binary data`);
+    }
+  }
+
+  return { type: 'FeatureCollection', features };
+};
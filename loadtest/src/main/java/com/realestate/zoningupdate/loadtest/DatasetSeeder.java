@@ -0,0 +1,165 @@
+package com.realestate.zoningupdate.loadtest;
+
+import com.realestate.zoningupdate.loadtest.ParcelDatasetGenerator.SyntheticParcel;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+
+/**
+ * Loads a generated dataset into a PostGIS database, normally the container built from
+ * db/Dockerfile. Creates the real_estate_zoning table and its spatial index when they are
+ * missing, streams the parcels in with COPY and analyzes the table so the planner sees
+ * the same statistics it would after a real import.
+ *
+ * A table that already holds parcels is only replaced when reset is requested, so the
+ * seeder cannot wipe a real dataset by accident.
+ */
+public class DatasetSeeder {
+
+    private static final String CREATE_TABLE = """
+            CREATE TABLE IF NOT EXISTS real_estate_zoning (
+                id serial PRIMARY KEY,
+                geom geometry(Polygon, 4326),
+                name text,
+                ll_uuid text,
+                mail_city text,
+                mail_zip text,
+                mailadd text,
+                ogc_fid integer,
+                owner text,
+                parcelnumb text,
+                path text,
+                struct integer,
+                structstyl text,
+                usedesc text,
+                zoning text,
+                zoning_sub text,
+                zoning_typ text
+            )""";
+
+    private static final String CREATE_INDEX =
+            "CREATE INDEX IF NOT EXISTS real_estate_zoning_geom_idx ON real_estate_zoning USING GIST (geom)";
+
+    private static final String COPY = "COPY real_estate_zoning (id, geom, name, ll_uuid, mail_city, mail_zip, "
+            + "mailadd, ogc_fid, owner, parcelnumb, path, struct, structstyl, usedesc, zoning, zoning_sub, zoning_typ) "
+            + "FROM STDIN WITH (FORMAT csv)";
+
+    // Rows buffered per write to the COPY stream
+    private static final int FLUSH_ROWS = 1000;
+
+    private final String url;
+    private final String username;
+    private final String password;
+
+    public DatasetSeeder(String url, String username, String password) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    /**
+     * Seed the table with every parcel of the generator
+     *
+     * @param generator Dataset to load
+     * @param reset Whether an existing, non-empty table may be truncated
+     */
+    public void seed(ParcelDatasetGenerator generator, boolean reset) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, username, password)) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE EXTENSION IF NOT EXISTS postgis");
+                statement.execute(CREATE_TABLE);
+                statement.execute(CREATE_INDEX);
+
+                long existing = countParcels(statement);
+                if (existing > 0 && !reset) {
+                    throw new IllegalStateException("real_estate_zoning already holds " + existing
+                            + " parcels; pass --reset=true to replace them");
+                }
+                if (existing > 0) {
+                    System.out.printf("Removing %d existing parcels%n", existing);
+                    statement.execute("TRUNCATE real_estate_zoning RESTART IDENTITY");
+                }
+            }
+
+            long start = System.nanoTime();
+            copyParcels(connection, generator);
+            double copySeconds = (System.nanoTime() - start) / 1e9;
+
+            try (Statement statement = connection.createStatement()) {
+                // Keep the sequence ahead of the explicit ids so inserts through the app still work
+                statement.execute("SELECT setval(pg_get_serial_sequence('real_estate_zoning', 'id'), "
+                        + "(SELECT max(id) FROM real_estate_zoning))");
+                statement.execute("ANALYZE real_estate_zoning");
+            }
+            System.out.printf("Seeded %d parcels in %.1f s (%.0f rows/s)%n", generator.getCount(), copySeconds,
+                    generator.getCount() / copySeconds);
+        }
+    }
+
+    private void copyParcels(Connection connection, ParcelDatasetGenerator generator) throws SQLException {
+        CopyIn copy = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY);
+        try {
+            StringBuilder buffer = new StringBuilder(FLUSH_ROWS * 400);
+            Iterator<SyntheticParcel> parcels = generator.iterator();
+            int rows = 0;
+            while (parcels.hasNext()) {
+                appendRow(buffer, parcels.next());
+                if (++rows % FLUSH_ROWS == 0) {
+                    write(copy, buffer);
+                    if (rows % (FLUSH_ROWS * 100) == 0) {
+                        System.out.printf("  %d / %d parcels%n", rows, generator.getCount());
+                    }
+                }
+            }
+            write(copy, buffer);
+            copy.endCopy();
+        } finally {
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+    }
+
+    private static void write(CopyIn copy, StringBuilder buffer) throws SQLException {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copy.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    private static void appendRow(StringBuilder buffer, SyntheticParcel parcel) {
+        buffer.append(parcel.id()).append(',');
+        appendText(buffer, parcel.toEwkt());
+        appendText(buffer, parcel.name());
+        // ll_uuid
+        buffer.append(',');
+        appendText(buffer, parcel.mailCity());
+        appendText(buffer, parcel.mailZip());
+        appendText(buffer, parcel.mailAddress());
+        buffer.append(parcel.id()).append(',');
+        appendText(buffer, parcel.owner());
+        appendText(buffer, parcel.parcelNumber());
+        // path, struct, structstyl, usedesc
+        buffer.append(",,,,");
+        appendText(buffer, parcel.zoning());
+        appendText(buffer, parcel.zoningSubType());
+        buffer.append('"').append(parcel.zoningType().replace("\"", "\"\"")).append("\"\n");
+    }
+
+    private static void appendText(StringBuilder buffer, String value) {
+        buffer.append('"').append(value.replace("\"", "\"\"")).append("\",");
+    }
+
+    private static long countParcels(Statement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("SELECT count(*) FROM real_estate_zoning")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
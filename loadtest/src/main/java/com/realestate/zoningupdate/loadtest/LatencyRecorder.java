@@ -0,0 +1,97 @@
+package com.realestate.zoningupdate.loadtest;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Collects response times per endpoint and prints a percentile summary.
+ *
+ * Every sample is kept, so percentiles are exact rather than bucketed; a run at a few
+ * hundred requests per second for several minutes only needs a few megabytes.
+ */
+public class LatencyRecorder {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Map<String, Samples> samples = new TreeMap<>();
+
+    /**
+     * Record one completed request
+     *
+     * @param endpoint Endpoint name the request is reported under
+     * @param latencyNanos Time from the request's scheduled start to its completion
+     * @param success Whether the request succeeded
+     */
+    public synchronized void record(String endpoint, long latencyNanos, boolean success) {
+        samples.computeIfAbsent(endpoint, key -> new Samples()).add(latencyNanos, success);
+    }
+
+    /**
+     * Print count, error count, achieved rate and latency percentiles in milliseconds
+     *
+     * @param out Stream to print to
+     * @param elapsedSeconds Length of the measured period, used for the achieved rate
+     */
+    public synchronized void report(PrintStream out, double elapsedSeconds) {
+        out.printf("%-20s %8s %7s %8s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50", "p90", "p99", "p99.9", "max");
+        Samples total = new Samples();
+        samples.forEach((endpoint, endpointSamples) -> {
+            printRow(out, endpoint, endpointSamples, elapsedSeconds);
+            total.addAll(endpointSamples);
+        });
+        if (samples.size() > 1) {
+            printRow(out, "all", total, elapsedSeconds);
+        }
+    }
+
+    private static void printRow(PrintStream out, String endpoint, Samples endpointSamples, double elapsedSeconds) {
+        long[] sorted = Arrays.copyOf(endpointSamples.latencies, endpointSamples.size);
+        Arrays.sort(sorted);
+        StringBuilder row = new StringBuilder(String.format("%-20s %8d %7d %8.1f",
+                endpoint, sorted.length, endpointSamples.errors, sorted.length / elapsedSeconds));
+        for (double percentile : PERCENTILES) {
+            row.append(String.format(" %9.1f", millis(percentile(sorted, percentile))));
+        }
+        row.append(String.format(" %9.1f", millis(sorted.length > 0 ? sorted[sorted.length - 1] : 0)));
+        out.println(row);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        // Nearest-rank percentile
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static class Samples {
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+
+        void add(long latencyNanos, boolean success) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.latencies[i], true);
+            }
+            errors += other.errors;
+        }
+    }
+}
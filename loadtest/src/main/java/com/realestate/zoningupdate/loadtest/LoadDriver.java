@@ -0,0 +1,228 @@
+package com.realestate.zoningupdate.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a weighted mix of map, statistics and zoning update requests at a fixed rate.
+ *
+ * Requests follow an open model: request i is due at start + i / rate whether or not
+ * earlier requests have completed, and its latency is measured from that due time. A
+ * slow server therefore shows up as growing latency instead of a silently lower request
+ * rate. The number of requests in flight is capped; when the cap is reached, new requests
+ * wait, and the wait counts towards their latency.
+ *
+ * Viewports and parcel ids are drawn from the seeded dataset's extent, so every request
+ * touches real rows.
+ */
+public class LoadDriver {
+
+    // Approximate viewport size in 256 px tiles, for turning a zoom level into bounds
+    private static final double VIEWPORT_TILES_WIDE = 5;
+    private static final double VIEWPORT_TILES_HIGH = 3;
+
+    private static final String[] UPDATE_TYPES = {"Residential", "Commercial", "Planned"};
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final ParcelDatasetGenerator dataset;
+    private final double[] extent;
+    private final String[] endpoints;
+    private final double[] cumulativeWeights;
+    private final int maxUpdateParcels;
+    private final Duration requestTimeout;
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final AtomicLong delayed = new AtomicLong();
+
+    /**
+     * @param baseUrl API base URL, e.g. http://localhost:8080/api
+     * @param dataset Generator the database was seeded with
+     * @param mix Relative weight of each endpoint: bounds, clusters, statistics,
+     *            statistics-bounds and update
+     * @param maxUpdateParcels Largest number of parcels in one zoning update
+     * @param requestTimeout Timeout for a single request
+     */
+    public LoadDriver(String baseUrl, ParcelDatasetGenerator dataset, Map<String, Double> mix,
+                      int maxUpdateParcels, Duration requestTimeout) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.dataset = dataset;
+        this.extent = dataset.extent();
+        this.maxUpdateParcels = Math.max(maxUpdateParcels, 1);
+        this.requestTimeout = requestTimeout;
+
+        this.endpoints = mix.keySet().toArray(new String[0]);
+        this.cumulativeWeights = new double[endpoints.length];
+        double total = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            if (!isKnownEndpoint(endpoints[i])) {
+                throw new IllegalArgumentException("Unknown endpoint in mix: " + endpoints[i]);
+            }
+            total += mix.get(endpoints[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Endpoint mix weights must not all be zero");
+        }
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            cumulativeWeights[i] /= total;
+        }
+    }
+
+    /**
+     * Run the load and print the latency summary. Requests due during the warm-up are
+     * sent but not recorded.
+     *
+     * @param rate Target requests per second
+     * @param warmup Warm-up period
+     * @param duration Measured period
+     * @param maxInFlight Cap on concurrent requests
+     * @param seed Seed for the request sequence
+     */
+    public void run(double rate, Duration warmup, Duration duration, int maxInFlight, long seed)
+            throws InterruptedException {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        System.out.printf("Sending %.1f req/s for %d s after a %d s warm-up against %s%n",
+                rate, duration.toSeconds(), warmup.toSeconds(), baseUrl);
+
+        for (long i = 0; ; i++) {
+            long due = start + (long) (i * intervalNanos);
+            if (due >= end) {
+                break;
+            }
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            String endpoint = pickEndpoint(random);
+            HttpRequest request = buildRequest(endpoint, random);
+
+            if (!inFlight.tryAcquire()) {
+                delayed.incrementAndGet();
+                inFlight.acquire();
+            }
+            boolean measured = due >= measureFrom;
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        long latency = System.nanoTime() - due;
+                        inFlight.release();
+                        if (measured) {
+                            boolean success = failure == null && response.statusCode() / 100 == 2;
+                            recorder.record(endpoint, latency, success);
+                        }
+                    });
+        }
+
+        // Let outstanding requests finish so slow responses are not left out of the results
+        if (!inFlight.tryAcquire(maxInFlight, requestTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+            System.out.printf("%d requests were still in flight when the run ended%n",
+                    maxInFlight - inFlight.availablePermits());
+        }
+
+        System.out.println();
+        recorder.report(System.out, duration.toNanos() / 1e9);
+        if (delayed.get() > 0) {
+            System.out.printf("%n%d requests waited for the in-flight limit of %d; their latency includes the wait%n",
+                    delayed.get(), maxInFlight);
+        }
+    }
+
+    private String pickEndpoint(SplittableRandom random) {
+        double draw = random.nextDouble();
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (draw < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        return endpoints[endpoints.length - 1];
+    }
+
+    private HttpRequest buildRequest(String endpoint, SplittableRandom random) {
+        return switch (endpoint) {
+            case "bounds" -> get("/parcels/geojson/bounds", withZoom(random, 16 + random.nextInt(3)));
+            case "clusters" -> get("/parcels/clusters", withZoom(random, 11 + random.nextInt(5)));
+            case "statistics" -> get("/parcels/statistics", null);
+            case "statistics-bounds" -> get("/parcels/statistics/bounds", viewport(random, 13 + random.nextInt(4)));
+            case "update" -> updateZoning(random);
+            default -> throw new IllegalStateException("Unknown endpoint: " + endpoint);
+        };
+    }
+
+    private static boolean isKnownEndpoint(String endpoint) {
+        return switch (endpoint) {
+            case "bounds", "clusters", "statistics", "statistics-bounds", "update" -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Random viewport at a zoom level, centred inside the dataset extent
+     *
+     * @return Query string with north, south, east and west
+     */
+    private String viewport(SplittableRandom random, int zoom) {
+        double width = 360 / Math.pow(2, zoom) * VIEWPORT_TILES_WIDE;
+        double height = 360 / Math.pow(2, zoom) * VIEWPORT_TILES_HIGH * Math.cos(Math.toRadians(extent[0]));
+        double centerLat = extent[0] + random.nextDouble() * (extent[2] - extent[0]);
+        double centerLon = extent[1] + random.nextDouble() * (extent[3] - extent[1]);
+        return String.format(Locale.ROOT, "north=%.6f&south=%.6f&east=%.6f&west=%.6f",
+                centerLat + height / 2, centerLat - height / 2, centerLon + width / 2, centerLon - width / 2);
+    }
+
+    private String withZoom(SplittableRandom random, int zoom) {
+        return viewport(random, zoom) + "&zoom=" + zoom;
+    }
+
+    private HttpRequest get(String path, String query) {
+        String uri = query != null ? baseUrl + path + "?" + query : baseUrl + path;
+        return HttpRequest.newBuilder(URI.create(uri))
+                .timeout(requestTimeout)
+                .GET()
+                .build();
+    }
+
+    /**
+     * Zoning update for a run of neighbouring parcels, like a user selecting lots on one street
+     */
+    private HttpRequest updateZoning(SplittableRandom random) {
+        int size = 1 + random.nextInt(maxUpdateParcels);
+        int first = 1 + random.nextInt(Math.max(dataset.getCount() - size + 1, 1));
+        StringBuilder ids = new StringBuilder();
+        for (int id = first; id < first + size && id <= dataset.getCount(); id++) {
+            if (ids.length() > 0) {
+                ids.append(',');
+            }
+            ids.append(id);
+        }
+        String type = UPDATE_TYPES[random.nextInt(UPDATE_TYPES.length)];
+        String[] subTypes = ParcelDatasetGenerator.subTypes(type);
+        String body = String.format("{\"parcelIds\":[%s],\"zoningType\":\"%s\",\"zoningSubType\":\"%s\","
+                + "\"username\":\"loadtest\"}", ids, type, subTypes[random.nextInt(subTypes.length)]);
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/parcels/update-zoning"))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
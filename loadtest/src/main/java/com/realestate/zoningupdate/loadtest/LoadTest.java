@@ -0,0 +1,118 @@
+package com.realestate.zoningupdate.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command line entry point for the load-test harness.
+ *
+ * <pre>
+ *   seed  --parcels=200000 [--reset=true]     load a synthetic dataset into PostGIS
+ *   run   --parcels=200000 --rate=100         drive traffic against a running backend
+ * </pre>
+ *
+ * Both commands take the dataset options, and run must be given the same values the
+ * database was seeded with so that viewports and parcel ids match the stored parcels.
+ * Options are passed as --name=value; unset options use the defaults below.
+ */
+public class LoadTest {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        // Dataset
+        DEFAULTS.put("seed", "42");
+        DEFAULTS.put("parcels", "100000");
+        DEFAULTS.put("density", "1200");
+        DEFAULTS.put("zoning-mix", "Residential:0.62,Commercial:0.23,Planned:0.1,Unknown:0.05");
+        DEFAULTS.put("jitter", "0.5");
+        DEFAULTS.put("deviation", "0.15");
+        DEFAULTS.put("origin-lat", "32.9672");
+        DEFAULTS.put("origin-lon", "-96.7812");
+        // Seeding
+        DEFAULTS.put("db-url", "jdbc:postgresql://localhost:5432/zoning_data");
+        DEFAULTS.put("db-username", "postgres");
+        DEFAULTS.put("db-password", "sqluser");
+        DEFAULTS.put("reset", "false");
+        // Traffic
+        DEFAULTS.put("base-url", "http://localhost:8080/api");
+        DEFAULTS.put("rate", "50");
+        DEFAULTS.put("warmup-seconds", "15");
+        DEFAULTS.put("duration-seconds", "60");
+        DEFAULTS.put("max-in-flight", "256");
+        DEFAULTS.put("timeout-seconds", "30");
+        DEFAULTS.put("mix", "bounds:50,clusters:25,statistics:8,statistics-bounds:12,update:5");
+        DEFAULTS.put("max-update-parcels", "20");
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0 || !(args[0].equals("seed") || args[0].equals("run"))) {
+            usage();
+            System.exit(1);
+        }
+        Map<String, String> options = parseOptions(args);
+        ParcelDatasetGenerator dataset = new ParcelDatasetGenerator(
+                Long.parseLong(options.get("seed")),
+                Integer.parseInt(options.get("parcels")),
+                Double.parseDouble(options.get("density")),
+                parseWeights(options.get("zoning-mix")),
+                Double.parseDouble(options.get("jitter")),
+                Double.parseDouble(options.get("deviation")),
+                Double.parseDouble(options.get("origin-lat")),
+                Double.parseDouble(options.get("origin-lon")));
+
+        if (args[0].equals("seed")) {
+            new DatasetSeeder(options.get("db-url"), options.get("db-username"), options.get("db-password"))
+                    .seed(dataset, Boolean.parseBoolean(options.get("reset")));
+        } else {
+            new LoadDriver(options.get("base-url"), dataset, parseWeights(options.get("mix")),
+                    Integer.parseInt(options.get("max-update-parcels")),
+                    Duration.ofSeconds(Long.parseLong(options.get("timeout-seconds"))))
+                    .run(Double.parseDouble(options.get("rate")),
+                            Duration.ofSeconds(Long.parseLong(options.get("warmup-seconds"))),
+                            Duration.ofSeconds(Long.parseLong(options.get("duration-seconds"))),
+                            Integer.parseInt(options.get("max-in-flight")),
+                            Long.parseLong(options.get("seed")));
+        }
+    }
+
+    /**
+     * Parse weights such as "Residential:0.6,Commercial:0.25,Planned:0.15", keeping their order
+     */
+    static Map<String, Double> parseWeights(String value) {
+        Map<String, Double> weights = new LinkedHashMap<>();
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid weight entry: " + part);
+            }
+            weights.put(pair[0].trim(), Double.parseDouble(pair[1].trim()));
+        }
+        return weights;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>(DEFAULTS);
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            String name = arg.substring(2, equals);
+            if (!DEFAULTS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown option --" + name);
+            }
+            options.put(name, arg.substring(equals + 1));
+        }
+        return options;
+    }
+
+    private static void usage() {
+        System.err.println("Usage: LoadTest (seed|run) [--name=value ...]");
+        System.err.println("Options and defaults:");
+        DEFAULTS.forEach((name, value) -> System.err.printf("  --%s=%s%n", name, value));
+    }
+}
@@ -0,0 +1,280 @@
+package com.realestate.zoningupdate.loadtest;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator of synthetic parcels shaped like the real_estate_zoning table.
+ *
+ * Parcels are laid out row by row on a grid of city blocks centred on the map's default
+ * location. Each block is split into lots separated by streets, and every lot is an
+ * irregular polygon inside its grid cell, so neighbouring parcels never overlap. Zoning
+ * is assigned per district of several blocks so that types cluster the way they do in
+ * real data, with a configurable share of lots deviating from their district.
+ *
+ * The same seed and parameters always produce the same parcels in the same order, which
+ * keeps the dataset and the load driver's viewports in agreement between runs.
+ */
+public class ParcelDatasetGenerator {
+
+    // Sub-types offered for each zoning type, as in the frontend's zoning controls
+    private static final Map<String, String[]> SUB_TYPES = Map.of(
+            "Residential", new String[]{"Single Family", "Multi Family", "Two Family"},
+            "Commercial", new String[]{"Office", "Retail Commercial"},
+            "Planned", new String[]{"Planned Development"},
+            "Unknown", new String[]{"Unknown"});
+
+    private static final String[] CITIES = {"Dallas", "Richardson", "Plano", "Garland", "Addison"};
+    private static final String[] STREETS = {"Main St", "Elm St", "Oak Ave", "Preston Rd", "Coit Rd",
+            "Hillcrest Rd", "Belt Line Rd", "Spring Valley Rd", "Campbell Rd", "Arapaho Rd"};
+    private static final String[] SURNAMES = {"Smith", "Johnson", "Garcia", "Nguyen", "Brown", "Lee",
+            "Martinez", "Davis", "Patel", "Wilson", "Anderson", "Thomas"};
+
+    private static final double KM_PER_DEGREE_LAT = 110.574;
+    private static final double KM_PER_DEGREE_LON_AT_EQUATOR = 111.320;
+
+    // Lots per block edge and blocks per zoning district edge
+    private static final int LOTS_PER_BLOCK = 4;
+    private static final int BLOCKS_PER_DISTRICT = 3;
+    // Share of a block's edge given to the surrounding streets
+    private static final double STREET_FRACTION = 0.12;
+
+    private final long seed;
+    private final int count;
+    private final double originLat;
+    private final double originLon;
+    private final int columns;
+    private final double cellLat;
+    private final double cellLon;
+    private final double jitter;
+    private final double deviation;
+    private final String[] zoningTypes;
+    private final double[] cumulativeWeights;
+
+    /**
+     * @param seed Random seed
+     * @param count Number of parcels
+     * @param densityPerKm2 Parcels per square kilometre, which sets the lot size
+     * @param zoningMix Relative weight of each zoning type
+     * @param jitter How irregular lot outlines are, from 0 (rectangles) to 1
+     * @param deviation Share of lots whose zoning differs from their district's
+     * @param originLat Latitude of the dataset centre
+     * @param originLon Longitude of the dataset centre
+     */
+    public ParcelDatasetGenerator(long seed, int count, double densityPerKm2, Map<String, Double> zoningMix,
+                                  double jitter, double deviation, double originLat, double originLon) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Parcel count must be positive");
+        }
+        if (densityPerKm2 <= 0) {
+            throw new IllegalArgumentException("Density must be positive");
+        }
+        if (zoningMix.isEmpty()) {
+            throw new IllegalArgumentException("Zoning mix must name at least one zoning type");
+        }
+        this.seed = seed;
+        this.count = count;
+        this.jitter = Math.min(Math.max(jitter, 0), 1);
+        this.deviation = Math.min(Math.max(deviation, 0), 1);
+
+        // Square extent with the requested parcel density, rounded up to whole blocks
+        double cellKm = Math.sqrt(1.0 / densityPerKm2);
+        int lotsPerEdge = (int) Math.ceil(Math.sqrt(count));
+        this.columns = (lotsPerEdge + LOTS_PER_BLOCK - 1) / LOTS_PER_BLOCK * LOTS_PER_BLOCK;
+        int rows = (count + columns - 1) / columns;
+        this.cellLat = cellKm / KM_PER_DEGREE_LAT;
+        this.cellLon = cellKm / (KM_PER_DEGREE_LON_AT_EQUATOR * Math.cos(Math.toRadians(originLat)));
+        this.originLat = originLat - rows * cellLat / 2;
+        this.originLon = originLon - columns * cellLon / 2;
+
+        this.zoningTypes = zoningMix.keySet().toArray(new String[0]);
+        this.cumulativeWeights = new double[zoningTypes.length];
+        double total = 0;
+        for (int i = 0; i < zoningTypes.length; i++) {
+            double weight = zoningMix.get(zoningTypes[i]);
+            if (weight < 0) {
+                throw new IllegalArgumentException("Zoning weight for " + zoningTypes[i] + " is negative");
+            }
+            total += weight;
+            cumulativeWeights[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Zoning mix weights must not all be zero");
+        }
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            cumulativeWeights[i] /= total;
+        }
+    }
+
+    /**
+     * Sub-types generated for a zoning type
+     */
+    public static String[] subTypes(String zoningType) {
+        return SUB_TYPES.getOrDefault(zoningType, new String[]{zoningType});
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Bounding box of the generated parcels as {south, west, north, east}
+     */
+    public double[] extent() {
+        int rows = (count + columns - 1) / columns;
+        return new double[]{originLat, originLon, originLat + rows * cellLat, originLon + columns * cellLon};
+    }
+
+    /**
+     * Iterate over the parcels in id order. Parcels are generated lazily, so large
+     * datasets can be streamed without holding them in memory.
+     */
+    public Iterator<SyntheticParcel> iterator() {
+        return new Iterator<>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < count;
+            }
+
+            @Override
+            public SyntheticParcel next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return parcel(next++);
+            }
+        };
+    }
+
+    /**
+     * Generate a single parcel. Ids start at 1.
+     *
+     * @param index Zero-based parcel index
+     */
+    public SyntheticParcel parcel(int index) {
+        int row = index / columns;
+        int column = index % columns;
+        // Each parcel has its own stream, so any parcel can be regenerated independently
+        SplittableRandom random = new SplittableRandom(mix(seed, index));
+
+        String zoningType = zoningType(row, column, random);
+        String[] subTypes = subTypes(zoningType);
+        String zoningSub = subTypes[random.nextInt(subTypes.length)];
+
+        int id = index + 1;
+        String owner = SURNAMES[random.nextInt(SURNAMES.length)] + " "
+                + (random.nextInt(4) == 0 ? "Holdings LLC" : "Family Trust");
+        String city = CITIES[random.nextInt(CITIES.length)];
+        String address = (100 + random.nextInt(9900)) + " " + STREETS[random.nextInt(STREETS.length)];
+        String zip = String.valueOf(75000 + random.nextInt(400));
+        String parcelNumber = String.format("SYN-%07d", id);
+
+        return new SyntheticParcel(id, polygon(row, column, random), parcelNumber, owner, address, city, zip,
+                parcelNumber, zoningType, zoningSub, zoningCode(zoningType, zoningSub));
+    }
+
+    private String zoningType(int row, int column, SplittableRandom random) {
+        int lotsPerDistrict = LOTS_PER_BLOCK * BLOCKS_PER_DISTRICT;
+        long district = ((long) (row / lotsPerDistrict) << 32) | (column / lotsPerDistrict);
+        double draw = random.nextDouble() < deviation
+                ? random.nextDouble()
+                : new SplittableRandom(mix(seed ^ 0x5DEECE66DL, district)).nextDouble();
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (draw < cumulativeWeights[i]) {
+                return zoningTypes[i];
+            }
+        }
+        return zoningTypes[zoningTypes.length - 1];
+    }
+
+    /**
+     * Build the lot outline as a closed ring of lon/lat pairs. The lot is inset from its
+     * cell (more on block edges, where streets run) and each corner is moved randomly;
+     * some lots get extra vertices along their edges so vertex counts vary like real data.
+     */
+    private double[] polygon(int row, int column, SplittableRandom random) {
+        double streetInset = STREET_FRACTION * LOTS_PER_BLOCK / 2;
+        // Larger than half the corner wiggle, so lots stay inside their own cell
+        double lotInset = 0.05;
+        double south = row % LOTS_PER_BLOCK == 0 ? streetInset : lotInset;
+        double north = row % LOTS_PER_BLOCK == LOTS_PER_BLOCK - 1 ? streetInset : lotInset;
+        double west = column % LOTS_PER_BLOCK == 0 ? streetInset : lotInset;
+        double east = column % LOTS_PER_BLOCK == LOTS_PER_BLOCK - 1 ? streetInset : lotInset;
+
+        // Corners in cell units, counter-clockwise from the south-west
+        double wiggle = 0.08 * jitter;
+        double[][] corners = {
+                {west, south}, {1 - east, south}, {1 - east, 1 - north}, {west, 1 - north}};
+        List<double[]> ring = new ArrayList<>();
+        for (int i = 0; i < corners.length; i++) {
+            double[] from = corners[i];
+            double[] to = corners[(i + 1) % corners.length];
+            ring.add(new double[]{
+                    from[0] + (random.nextDouble() - 0.5) * wiggle,
+                    from[1] + (random.nextDouble() - 0.5) * wiggle});
+            int extra = random.nextDouble() < jitter ? random.nextInt(3) : 0;
+            for (int k = 1; k <= extra; k++) {
+                double t = (double) k / (extra + 1);
+                ring.add(new double[]{
+                        from[0] + (to[0] - from[0]) * t + (random.nextDouble() - 0.5) * wiggle / 2,
+                        from[1] + (to[1] - from[1]) * t + (random.nextDouble() - 0.5) * wiggle / 2});
+            }
+        }
+
+        double[] coordinates = new double[(ring.size() + 1) * 2];
+        for (int i = 0; i <= ring.size(); i++) {
+            double[] point = ring.get(i % ring.size());
+            coordinates[i * 2] = originLon + (column + point[0]) * cellLon;
+            coordinates[i * 2 + 1] = originLat + (row + point[1]) * cellLat;
+        }
+        return coordinates;
+    }
+
+    private static String zoningCode(String type, String sub) {
+        return switch (sub) {
+            case "Single Family" -> "SF-7";
+            case "Two Family" -> "TH-2";
+            case "Multi Family" -> "MF-2";
+            case "Office" -> "O-1";
+            case "Retail Commercial" -> "CR";
+            case "Planned Development" -> "PD";
+            default -> type.substring(0, Math.min(type.length(), 3)).toUpperCase();
+        };
+    }
+
+    private static long mix(long seed, long value) {
+        // SplitMix64 finalizer, so adjacent indexes get unrelated streams
+        long z = seed + value * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * One generated parcel. The outline is a closed ring of lon/lat pairs.
+     */
+    public record SyntheticParcel(int id, double[] ring, String name, String owner, String mailAddress,
+                                  String mailCity, String mailZip, String parcelNumber, String zoningType,
+                                  String zoningSubType, String zoning) {
+
+        /**
+         * Outline as extended WKT, as accepted by PostGIS geometry input
+         */
+        public String toEwkt() {
+            StringBuilder wkt = new StringBuilder(32 + ring.length * 20).append("SRID=4326;POLYGON((");
+            for (int i = 0; i < ring.length; i += 2) {
+                if (i > 0) {
+                    wkt.append(',');
+                }
+                wkt.append(ring[i]).append(' ').append(ring[i + 1]);
+            }
+            return wkt.append("))").toString();
+        }
+    }
+}